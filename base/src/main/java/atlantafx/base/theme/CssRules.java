@@ -0,0 +1,209 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * A minimal parser for the compiled theme stylesheets, which is used by the build tools.
+ * It only splits CSS into rules and declarations. Comments are dropped, strings and
+ * parentheses are respected, statements without a block (like {@code @import}) and
+ * blocks that contain nested blocks are kept as raw text.
+ */
+final class CssRules {
+
+    private CssRules() {
+        // Default constructor
+    }
+
+    /**
+     * A rule with a selector and declarations. Statements without a block
+     * and blocks that can't be parsed are stored as raw text in the selector
+     * with null declarations.
+     */
+    record Rule(String selector, @Nullable List<Declaration> declarations) {
+
+        /**
+         * Returns comma-separated selectors of the rule.
+         */
+        List<String> selectors() {
+            if (declarations == null) {
+                return List.of();
+            }
+
+            var result = new ArrayList<String>();
+            int depth = 0;
+            int start = 0;
+            for (int i = 0; i < selector.length(); i++) {
+                char c = selector.charAt(i);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == ',' && depth == 0) {
+                    result.add(selector.substring(start, i).trim());
+                    start = i + 1;
+                }
+            }
+            result.add(selector.substring(start).trim());
+            return result;
+        }
+    }
+
+    record Declaration(String property, String value) {
+    }
+
+    static List<Rule> parse(String css) {
+        var rules = new ArrayList<Rule>();
+        var buf = new StringBuilder();
+        int i = 0;
+        int n = css.length();
+
+        while (i < n) {
+            char c = css.charAt(i);
+
+            if (c == '/' && i + 1 < n && css.charAt(i + 1) == '*') {
+                i = skipComment(css, i);
+            } else if (c == '"' || c == '\'') {
+                int end = skipString(css, i);
+                buf.append(css, i, end);
+                i = end;
+            } else if (c == ';') {
+                String statement = buf.toString().trim();
+                if (!statement.isEmpty()) {
+                    rules.add(new Rule(statement + ";", null));
+                }
+                buf.setLength(0);
+                i++;
+            } else if (c == '{') {
+                String selector = buf.toString().trim();
+                buf.setLength(0);
+                int end = findBlockEnd(css, i + 1);
+                String body = css.substring(i + 1, css.charAt(end - 1) == '}' ? end - 1 : end);
+                List<Declaration> declarations = parseDeclarations(body);
+                rules.add(declarations != null
+                    ? new Rule(selector, declarations)
+                    : new Rule(selector + " {" + body + "}", null)
+                );
+                i = end;
+            } else {
+                buf.append(c);
+                i++;
+            }
+        }
+
+        return rules;
+    }
+
+    static void write(StringBuilder sb, Rule rule, UnaryOperator<String> valueMapper) {
+        if (rule.declarations() == null) {
+            sb.append(rule.selector()).append('\n');
+            return;
+        }
+
+        sb.append(rule.selector()).append(" {\n");
+        for (var decl : rule.declarations()) {
+            sb.append("  ")
+                .append(decl.property())
+                .append(": ")
+                .append(valueMapper.apply(decl.value()))
+                .append(";\n");
+        }
+        sb.append("}\n");
+    }
+
+    // Returns null if the block contains nested blocks.
+    private static @Nullable List<Declaration> parseDeclarations(String body) {
+        var declarations = new ArrayList<Declaration>();
+        var buf = new StringBuilder();
+        int depth = 0;
+        int i = 0;
+        int n = body.length();
+
+        while (i < n) {
+            char c = body.charAt(i);
+
+            if (c == '/' && i + 1 < n && body.charAt(i + 1) == '*') {
+                i = skipComment(body, i);
+                continue;
+            } else if (c == '"' || c == '\'') {
+                int end = skipString(body, i);
+                buf.append(body, i, end);
+                i = end;
+                continue;
+            } else if (c == '{' || c == '}') {
+                return null;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ';' && depth == 0) {
+                addDeclaration(declarations, buf.toString());
+                buf.setLength(0);
+                i++;
+                continue;
+            }
+
+            buf.append(c);
+            i++;
+        }
+
+        addDeclaration(declarations, buf.toString());
+        return declarations;
+    }
+
+    private static void addDeclaration(List<Declaration> declarations, String text) {
+        int colon = text.indexOf(':');
+        if (colon > 0) {
+            declarations.add(new Declaration(text.substring(0, colon).trim(), text.substring(colon + 1).trim()));
+        }
+    }
+
+    // Returns the index right after the matching closing brace.
+    private static int findBlockEnd(String css, int start) {
+        int depth = 1;
+        int i = start;
+        while (i < css.length()) {
+            char c = css.charAt(i);
+            if (c == '/' && i + 1 < css.length() && css.charAt(i + 1) == '*') {
+                i = skipComment(css, i);
+                continue;
+            } else if (c == '"' || c == '\'') {
+                i = skipString(css, i);
+                continue;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return css.length();
+    }
+
+    private static int skipComment(String css, int start) {
+        int end = css.indexOf("*/", start + 2);
+        return end < 0 ? css.length() : end + 2;
+    }
+
+    private static int skipString(String css, int start) {
+        char quote = css.charAt(start);
+        int i = start + 1;
+        while (i < css.length()) {
+            char c = css.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                return i + 1;
+            }
+            i++;
+        }
+        return css.length();
+    }
+}
@@ -5,6 +5,7 @@ package atlantafx.base.theme;
 /**
  * A theme based on <a href="https://developer.apple.com/design/">IOS</a> color palette.
  */
+@ThemeInfo(darkMode = false)
 public class CupertinoLight implements Theme {
 
     public CupertinoLight() {
@@ -5,6 +5,7 @@ package atlantafx.base.theme;
 /**
  * A theme based on <a href="https://draculatheme.com">Dracula</a> color palette.
  */
+@ThemeInfo(darkMode = true)
 public class Dracula implements Theme {
 
     public Dracula() {
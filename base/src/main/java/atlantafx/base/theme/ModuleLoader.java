@@ -0,0 +1,281 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Loads component stylesheet modules of a split theme on demand, see {@link ThemeSplitter}.
+ *
+ * <p>JavaFX only supports a single user-agent stylesheet per scene, so the application-wide
+ * user-agent stylesheet is set to the core stylesheet, and every scene that contains any
+ * of the module components gets its own user-agent stylesheet, which combines the core
+ * stylesheet with the modules used by that scene. Combined stylesheets are cached by
+ * module set, so scenes that use the same components share the same parsed stylesheet.
+ *
+ * <p>Popup windows copy the user-agent stylesheet of the owner scene, so a combined
+ * stylesheet found on a scene is always treated as managed by the loader, and the modules
+ * it contains are loaded for that scene as well.
+ */
+final class ModuleLoader {
+
+    private static final String STATE_KEY = ModuleLoader.class.getName() + ".state";
+
+    private final String core;
+    private final URL coreUrl;
+    private final Map<String, URL> available;
+    private final Map<String, List<Chunk>> chunks = new HashMap<>();
+    private final Map<Set<String>, String> combined = new HashMap<>();
+    private final Map<String, Set<String>> combinedModules = new HashMap<>();
+
+    private ModuleLoader(String core, URL coreUrl, Map<String, URL> available) {
+        this.core = core;
+        this.coreUrl = coreUrl;
+        this.available = available;
+    }
+
+    /**
+     * Creates a loader for the given theme, or returns null if the theme
+     * stylesheet hasn't been split.
+     */
+    static @Nullable ModuleLoader create(Theme theme, List<ThemeModule> modules) {
+        String stylesheet = theme.getUserAgentStylesheet();
+        int dot = stylesheet.lastIndexOf('.');
+        if (dot <= stylesheet.lastIndexOf('/') || stylesheet.indexOf(':') > 0) {
+            return null;
+        }
+
+        String dir = stylesheet.substring(0, dot) + "/";
+        String core = dir + ThemeSplitter.CORE + ".css";
+        URL coreUrl = findResource(theme, core);
+        if (coreUrl == null) {
+            return null;
+        }
+
+        var available = new LinkedHashMap<String, URL>();
+        for (var module : modules) {
+            URL url = findResource(theme, dir + module.name() + ".css");
+            if (url != null) {
+                available.put(module.name(), url);
+            }
+        }
+
+        return new ModuleLoader(core, coreUrl, available);
+    }
+
+    /**
+     * Returns the path to the core stylesheet.
+     */
+    String getCoreStylesheet() {
+        return core;
+    }
+
+    /**
+     * Scans the scene for components, loads their modules and updates the scene
+     * user-agent stylesheet if needed. The modules loaded by the previous theme are
+     * retained. Returns whether the scene user-agent stylesheet has been changed.
+     */
+    boolean refresh(Scene scene, List<ThemeModule> modules, Runnable pulseListener) {
+        var state = State.on(scene, pulseListener);
+
+        String current = scene.getUserAgentStylesheet();
+        if (current != null && !current.equals(state.stylesheet)) {
+            // a popup window has copied the stylesheet from its owner scene
+            Set<String> inherited = combinedModules.get(current);
+            if (inherited == null) {
+                // the application has set its own stylesheet
+                return false;
+            }
+            state.loaded.addAll(inherited);
+            state.stylesheet = current;
+        }
+
+        // the new theme may not have some of the modules loaded by the previous one
+        state.loaded.retainAll(available.keySet());
+        if (state.loaded.size() < available.size()) {
+            scan(scene.getRoot(), modules, state.loaded);
+        }
+
+        String stylesheet = state.loaded.isEmpty() ? null : combine(Set.copyOf(state.loaded), modules);
+        if (Objects.equals(stylesheet, current)) {
+            return false;
+        }
+
+        state.stylesheet = stylesheet;
+        scene.setUserAgentStylesheet(stylesheet);
+        return true;
+    }
+
+    /**
+     * Returns whether all available modules have been loaded for the scene.
+     */
+    boolean isComplete(Scene scene) {
+        var state = State.get(scene);
+        return state != null && state.loaded.containsAll(available.keySet());
+    }
+
+    /**
+     * Returns the names of the modules loaded for the scene.
+     */
+    static Set<String> getLoaded(Scene scene) {
+        var state = State.get(scene);
+        return state != null ? Set.copyOf(state.loaded) : Set.of();
+    }
+
+    /**
+     * Removes the pulse listener and restores the scene user-agent stylesheet.
+     */
+    static void detach(Scene scene) {
+        var state = State.get(scene);
+        if (state == null) {
+            return;
+        }
+
+        scene.removePreLayoutPulseListener(state.pulseListener);
+        if (state.stylesheet != null && state.stylesheet.equals(scene.getUserAgentStylesheet())) {
+            scene.setUserAgentStylesheet(null);
+        }
+        scene.getProperties().remove(STATE_KEY);
+    }
+
+    // Walks the scene graph and adds the modules used by any node.
+    private void scan(Parent root, List<ThemeModule> modules, Set<String> loaded) {
+        var candidates = modules.stream()
+            .filter(module -> available.containsKey(module.name()) && !loaded.contains(module.name()))
+            .toList();
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        var found = new LinkedHashSet<String>();
+        var queue = new ArrayDeque<Node>();
+        queue.add(root);
+
+        while (!queue.isEmpty() && found.size() < candidates.size()) {
+            Node node = queue.poll();
+            for (var module : candidates) {
+                if (!found.contains(module.name()) && module.isUsedBy(node)) {
+                    found.add(module.name());
+                }
+            }
+            if (node instanceof Parent parent) {
+                queue.addAll(parent.getChildrenUnmodifiable());
+            }
+        }
+
+        loaded.addAll(found);
+    }
+
+    // Combines the core stylesheet with the given modules. Rules are merged back in the order
+    // of the source stylesheet, because a core rule can override a preceding module rule.
+    private String combine(Set<String> names, List<ThemeModule> modules) {
+        return combined.computeIfAbsent(names, _ -> {
+            var all = new ArrayList<>(read(ThemeSplitter.CORE, coreUrl));
+            for (var module : modules) {
+                if (names.contains(module.name())) {
+                    all.addAll(read(module.name(), available.get(module.name())));
+                }
+            }
+            // the sort is stable, so stylesheets without order markers are concatenated as is
+            all.sort(Comparator.comparingInt(Chunk::index));
+
+            var sb = new StringBuilder();
+            for (var chunk : all) {
+                sb.append(chunk.css()).append('\n');
+            }
+
+            String stylesheet = Styles.encode(sb.toString());
+            combinedModules.put(stylesheet, names);
+            return stylesheet;
+        });
+    }
+
+    private List<Chunk> read(String name, @Nullable URL url) {
+        return chunks.computeIfAbsent(name, _ -> {
+            if (url == null) {
+                return List.of();
+            }
+            try (InputStream in = url.openStream()) {
+                return parseChunks(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Splits the stylesheet into runs of rules at the order markers written by the splitter.
+    private static List<Chunk> parseChunks(String css) {
+        var result = new ArrayList<Chunk>();
+        String marker = ThemeSplitter.ORDER_MARKER;
+
+        int start = css.indexOf(marker);
+        if (start != 0) {
+            result.add(new Chunk(-1, start < 0 ? css : css.substring(0, start)));
+        }
+
+        while (start >= 0) {
+            int end = css.indexOf("*/", start);
+            int index = Integer.parseInt(css, start + marker.length(), end, 10);
+            int next = css.indexOf(marker, end);
+            result.add(new Chunk(index, css.substring(end + 2, next < 0 ? css.length() : next)));
+            start = next;
+        }
+
+        return result;
+    }
+
+    private static @Nullable URL findResource(Theme theme, String path) {
+        return theme.getClass().getResource(path.startsWith("/") ? path : "/" + path);
+    }
+
+    //*************************************************************************
+
+    // A run of consecutive rules and the index of the first rule in the source stylesheet.
+    private record Chunk(int index, String css) {
+    }
+
+    // Per-scene state, which is stored in the scene properties.
+    private static final class State {
+
+        private final Set<String> loaded = new LinkedHashSet<>();
+        private final Runnable pulseListener;
+        private @Nullable String stylesheet;
+
+        private State(Runnable pulseListener) {
+            this.pulseListener = pulseListener;
+        }
+
+        static @Nullable State get(Scene scene) {
+            return scene.getProperties().get(STATE_KEY) instanceof State state ? state : null;
+        }
+
+        static State on(Scene scene, Runnable pulseListener) {
+            var state = get(scene);
+            if (state == null) {
+                state = new State(pulseListener);
+                scene.getProperties().put(STATE_KEY, state);
+                scene.addPreLayoutPulseListener(pulseListener);
+            }
+            return state;
+        }
+    }
+}
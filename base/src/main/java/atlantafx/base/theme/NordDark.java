@@ -5,6 +5,7 @@ package atlantafx.base.theme;
 /**
  * A theme based on <a href="https://primer.style/">Nord</a> color palette.
  */
+@ThemeInfo(darkMode = true)
 public final class NordDark implements Theme {
 
     public NordDark() {
@@ -5,6 +5,7 @@ package atlantafx.base.theme;
 /**
  * A theme based on <a href="https://www.nordtheme.com/">Nord</a> color palette.
  */
+@ThemeInfo(darkMode = false)
 public final class NordLight implements Theme {
 
     public NordLight() {
@@ -5,6 +5,7 @@ package atlantafx.base.theme;
 /**
  * A theme based on <a href="https://primer.style/">GitHub Primer</a> color palette.
  */
+@ThemeInfo(darkMode = true)
 public final class PrimerDark implements Theme {
 
     public PrimerDark() {
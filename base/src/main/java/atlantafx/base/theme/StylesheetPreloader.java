@@ -0,0 +1,131 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import javafx.css.Stylesheet;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Loads theme stylesheets in background and converts them to in-memory binary (BSS)
+ * data URIs, so that switching to a preloaded theme skips both resource lookup and
+ * CSS parsing.
+ */
+final class StylesheetPreloader {
+
+    static final String MIME_BSS = "application/octet-stream";
+
+    // url() values that are neither absolute paths nor URLs with a scheme,
+    // such references can't be resolved after relocating a stylesheet to a data URI
+    private static final Pattern RELATIVE_URL = Pattern.compile(
+        "url\\(\\s*[\"']?(?![a-zA-Z][a-zA-Z0-9+.-]*:|/)"
+    );
+
+    private static @Nullable ExecutorService executor;
+
+    private StylesheetPreloader() {
+        // Default constructor
+    }
+
+    /**
+     * Returns a shared single-threaded executor that runs preloading tasks.
+     * The thread is a daemon, so it doesn't prevent JVM from shutting down.
+     */
+    static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                var thread = new Thread(runnable, "atlantafx-theme-preloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Loads the theme stylesheet and returns it as a binary data URI. The shipped
+     * BSS stylesheet is used if it exists, otherwise the CSS stylesheet is compiled.
+     * Can be called from any thread.
+     *
+     * @param theme the theme to load
+     * @return the BSS data URI
+     * @throws IOException if the stylesheet can't be found, read or relocated
+     */
+    static Preloaded load(Theme theme) throws IOException {
+        String cssPath = theme.getUserAgentStylesheet();
+        URL cssUrl = findResource(theme, cssPath);
+        if (cssUrl == null) {
+            throw new IOException("Stylesheet not found: " + cssPath);
+        }
+
+        String css = new String(readAllBytes(cssUrl), StandardCharsets.UTF_8);
+        if (RELATIVE_URL.matcher(css).find()) {
+            throw new IOException("Stylesheet '" + cssPath + "' contains relative URLs and can't be preloaded");
+        }
+
+        String bssPath = theme.getUserAgentStylesheetBSS();
+        URL bssUrl = bssPath != null ? findResource(theme, bssPath) : null;
+        if (bssPath != null && bssUrl != null) {
+            return new Preloaded(bssPath, Styles.encode(readAllBytes(bssUrl), MIME_BSS));
+        }
+
+        Path source = Files.createTempFile("atlantafx", ".css");
+        Path target = Files.createTempFile("atlantafx", ".bss");
+        try {
+            Files.writeString(source, css, StandardCharsets.UTF_8);
+            Stylesheet.convertToBinary(source.toFile(), target.toFile());
+            return new Preloaded(cssPath, Styles.encode(Files.readAllBytes(target), MIME_BSS));
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(target);
+        }
+    }
+
+    /**
+     * Resolves the stylesheet path the same way as it will be resolved by the theme manager.
+     * Paths without a scheme are looked up on the theme classpath.
+     */
+    static @Nullable URL findResource(Theme theme, String path) throws IOException {
+        if (path.indexOf(':') > 0) {
+            try {
+                return new URI(path).toURL();
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                throw new IOException("Invalid stylesheet URL: " + path, e);
+            }
+        }
+        return theme.getClass().getResource(path.startsWith("/") ? path : "/" + path);
+    }
+
+    private static byte[] readAllBytes(URL url) throws IOException {
+        try (InputStream in = url.openStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Holds a preloaded stylesheet.
+     *
+     * @param source the stylesheet path the data was loaded from
+     * @param uri    the BSS data URI
+     */
+    record Preloaded(String source, String uri) {
+
+        /**
+         * Returns the approximate size of the stylesheet in memory.
+         */
+        int size() {
+            return uri.length();
+        }
+    }
+}
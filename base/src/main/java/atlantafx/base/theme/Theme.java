@@ -40,6 +40,17 @@ public interface Theme {
      */
     boolean isDarkMode();
 
+    /**
+     * Returns the path to the theme palette stylesheet, or null if the theme doesn't have one.
+     * The palette stylesheet only defines the looked-up colors of the {@code .root} node and is
+     * added to every scene on top of the user-agent stylesheet. Themes that share the same
+     * user-agent stylesheet and only differ in palette are switched by replacing the palette
+     * stylesheet, which doesn't require re-parsing the user-agent stylesheet.
+     */
+    default @Nullable String getPaletteStylesheet() {
+        return null;
+    }
+
     /**
      * A simple factory method for instantiating a new theme.
      */
@@ -71,6 +82,127 @@ public interface Theme {
         };
     }
 
+    /**
+     * Returns a flattened variant of the given theme, in which looked-up colors, except for
+     * the accent colors, are replaced with literal values. It's faster to apply on deep scene graphs,
+     * but overriding theme colors (other than accent) at runtime has no effect on it.
+     * Flattened stylesheets are generated for all built-in themes. For a custom theme,
+     * they must be generated with {@link ThemeFlattener} and placed next to the original
+     * stylesheets.
+     *
+     * @param theme the original theme
+     * @return the theme that refers to the flattened stylesheets
+     * @see ThemeFlattener
+     */
+    static Theme flat(final Theme theme) {
+        return variant(theme, ThemeFlattener.SUFFIX, "Flat");
+    }
+
+    /**
+     * Returns a variant of the given theme without effects, in which drop shadows are either
+     * removed or replaced with plain borders. It's intended for the software rendering
+     * pipeline, where effects take a large share of the frame time. Variants are compiled
+     * for all built-in themes. See {@link ThemeOptions#EFFECTS} to disable effects at runtime
+     * without changing the theme.
+     *
+     * @param theme the original theme
+     * @return the theme that refers to the effect-free stylesheets
+     */
+    static Theme noEffects(final Theme theme) {
+        return variant(theme, ThemeOptions.NO_EFFECTS_SUFFIX, "No Effects");
+    }
+
+    /**
+     * Returns a theme that uses the user-agent stylesheet of the given theme with the specified
+     * palette stylesheet on top of it. Palette stylesheets can be generated with {@link ThemeGenerator}.
+     * Switching between the palette themes of the same base theme only replaces the palette stylesheet.
+     *
+     * <pre>{@code
+     * Path palette = new ThemeGenerator().generate(ThemeGenerator.Seeds.primerLight().withAccent(brand));
+     * Theme theme = Theme.withPalette(new PrimerLight(), "Brand", palette.toUri().toString());
+     * }</pre>
+     *
+     * @param theme             the base theme
+     * @param name              the theme name
+     * @param paletteStylesheet the path to the palette stylesheet
+     * @return the theme that refers to the base theme stylesheets and the palette stylesheet
+     * @see #getPaletteStylesheet()
+     */
+    static Theme withPalette(final Theme theme, final String name, final String paletteStylesheet) {
+        Objects.requireNonNull(theme, "Theme cannot be null!");
+        Objects.requireNonNull(name, "Name cannot be null!");
+        Objects.requireNonNull(paletteStylesheet, "Palette stylesheet cannot be null!");
+
+        return new Theme() {
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getUserAgentStylesheet() {
+                return theme.getUserAgentStylesheet();
+            }
+
+            @Override
+            public @Nullable String getUserAgentStylesheetBSS() {
+                return theme.getUserAgentStylesheetBSS();
+            }
+
+            @Override
+            public boolean isDarkMode() {
+                return theme.isDarkMode();
+            }
+
+            @Override
+            public String getPaletteStylesheet() {
+                return paletteStylesheet;
+            }
+        };
+    }
+
+    private static Theme variant(final Theme theme, final String suffix, final String label) {
+        Objects.requireNonNull(theme, "Theme cannot be null!");
+
+        final String css = withSuffix(theme.getUserAgentStylesheet(), suffix);
+        final String sourceBss = theme.getUserAgentStylesheetBSS();
+        final String bss = sourceBss != null ? withSuffix(sourceBss, suffix) : null;
+
+        return new Theme() {
+
+            @Override
+            public String getName() {
+                return theme.getName() + " (" + label + ")";
+            }
+
+            @Override
+            public String getUserAgentStylesheet() {
+                return css;
+            }
+
+            @Override
+            public @Nullable String getUserAgentStylesheetBSS() {
+                return bss;
+            }
+
+            @Override
+            public boolean isDarkMode() {
+                return theme.isDarkMode();
+            }
+
+            @Override
+            public @Nullable String getPaletteStylesheet() {
+                return theme.getPaletteStylesheet();
+            }
+        };
+    }
+
+    private static String withSuffix(String path, String suffix) {
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/') ? path.substring(0, dot) + suffix + path.substring(dot) : path + suffix;
+    }
+
     /**
      * Returns whether the theme is a standard theme provided by the OpenJFX or a custom theme.
      */
@@ -6,27 +6,104 @@ import javafx.css.Stylesheet;
 import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * A lazy man CSS to BSS compiler wrapper.
+ *
+ * <p>Files are converted in parallel on a dedicated fork-join pool. The compiler
+ * records the SHA-256 hash of every converted CSS file in a manifest file
+ * ({@value #MANIFEST_FILE}) and skips files whose content hasn't been changed
+ * since the last run, as long as the BSS file still exists. Manifests are written
+ * next to the output, unless a separate manifest directory is specified, which
+ * keeps them out of the build artifacts.
  */
 public class ThemeCompiler {
 
     /**
-     * The main class that accepts exactly one parameter, which is the path to
-     * the source directory to be scanned for CSS files.
+     * The name of the manifest file that contains hashes of the converted CSS files.
+     */
+    public static final String MANIFEST_FILE = ".bss-manifest";
+
+    private static final String VERSION_KEY = "@javafx.version";
+    private static final String MANIFEST_DIR_ARG = "--manifest-dir=";
+
+    private final int parallelism;
+    private final boolean incremental;
+    private final @Nullable Path manifestDir;
+
+    /**
+     * Creates a compiler that uses all available processors and skips unchanged files.
+     */
+    public ThemeCompiler() {
+        this(Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    /**
+     * Creates a compiler with the specified settings.
+     *
+     * @param parallelism The maximum number of files converted at the same time.
+     * @param incremental Whether to skip files that haven't been changed since the last run.
+     */
+    public ThemeCompiler(int parallelism, boolean incremental) {
+        this(parallelism, incremental, null);
+    }
+
+    /**
+     * Creates a compiler with the specified settings.
+     *
+     * @param parallelism The maximum number of files converted at the same time.
+     * @param incremental Whether to skip files that haven't been changed since the last run.
+     * @param manifestDir The directory to store manifest files in, which mirrors the source
+     *                    directory structure. If null, manifests are stored next to the output.
+     */
+    public ThemeCompiler(int parallelism, boolean incremental, @Nullable Path manifestDir) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.incremental = incremental;
+        this.manifestDir = manifestDir;
+    }
+
+    /**
+     * The main class that accepts the path to the source directory to be scanned
+     * for CSS files, optionally followed by flags.
      *
      * <p>Usage:
      * <pre>{@code
-     * java ThemeCompiler <path>
+     * java ThemeCompiler <path> [--recursive] [--force] [--manifest-dir=<path>]
      * }</pre>
      *
-     * @see #convertToBinary(Path)
+     * <ul>
+     *     <li>{@code --recursive} - scan subdirectories too</li>
+     *     <li>{@code --force} - convert all files, even if they haven't been changed</li>
+     *     <li>{@code --manifest-dir} - store manifest files in the specified directory</li>
+     * </ul>
+     *
+     * @see #convertToBinary(Path, boolean)
      */
     public static void main(String[] args) {
         try {
@@ -34,15 +111,32 @@ public class ThemeCompiler {
                 throw new IllegalArgumentException("You must provide the source directory path");
             }
 
-            if (args.length > 1) {
-                throw new IllegalArgumentException(
-                    "Unexpected arguments were found: "
-                        + Arrays.toString(Arrays.copyOfRange(args, 1, args.length))
-                );
+            boolean recursive = false;
+            boolean force = false;
+            Path manifestDir = null;
+            var unknown = new ArrayList<String>();
+
+            for (String arg : Arrays.copyOfRange(args, 1, args.length)) {
+                switch (arg) {
+                    case "--recursive" -> recursive = true;
+                    case "--force" -> force = true;
+                    default -> {
+                        if (arg.startsWith(MANIFEST_DIR_ARG) && arg.length() > MANIFEST_DIR_ARG.length()) {
+                            manifestDir = Paths.get(arg.substring(MANIFEST_DIR_ARG.length()));
+                        } else {
+                            unknown.add(arg);
+                        }
+                    }
+                }
+            }
+
+            if (!unknown.isEmpty()) {
+                throw new IllegalArgumentException("Unexpected arguments were found: " + unknown);
             }
 
             var dir = Paths.get(args[0]);
-            new ThemeCompiler().convertToBinary(dir);
+            new ThemeCompiler(Runtime.getRuntime().availableProcessors(), !force, manifestDir)
+                .convertToBinary(dir, recursive);
         } catch (IOException e) {
             throw new RuntimeException(e.getMessage(), e);
         }
@@ -55,20 +149,80 @@ public class ThemeCompiler {
      * @throws IOException to punish you for using Java
      */
     public void convertToBinary(@Nullable Path dir) throws IOException {
+        convertToBinary(dir, false);
+    }
+
+    /**
+     * Converts all CSS files in the specified directory to BSS. Every BSS file is written
+     * next to its source file, and every directory gets its own manifest file.
+     *
+     * @param dir       The source directory to scan for CSS files.
+     * @param recursive Whether to scan subdirectories.
+     * @return The list of written BSS files, which excludes skipped files.
+     * @throws IOException to punish you for using Java
+     */
+    public List<Path> convertToBinary(@Nullable Path dir, boolean recursive) throws IOException {
         if (dir == null || !Files.exists(dir) || !Files.isDirectory(dir)) {
             throw new IllegalArgumentException("Invalid directory: " + dir);
         }
 
-        try (Stream<Path> stream = Files.list(dir)) {
-            stream.filter(f -> f.toString().endsWith(".css"))
-                .forEach(f -> {
-                    try {
-                        convertToBinary(f, f.resolveSibling(getFilename(f) + ".bss"));
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
+        Map<Path, List<Path>> filesByDir;
+        try (Stream<Path> stream = recursive ? Files.walk(dir) : Files.list(dir)) {
+            filesByDir = stream
+                .filter(f -> f.toString().endsWith(".css") && Files.isRegularFile(f))
+                .sorted()
+                .collect(Collectors.groupingBy(Path::getParent, LinkedHashMap::new, Collectors.toList()));
+        }
+
+        var manifests = new LinkedHashMap<Path, Properties>();
+        var tasks = new ArrayList<Path>();
+        for (var entry : filesByDir.entrySet()) {
+            manifests.put(entry.getKey(), readManifest(getManifestFile(dir, entry.getKey())));
+            tasks.addAll(entry.getValue());
+        }
+
+        var hashes = new ConcurrentHashMap<Path, String>();
+        var converted = ConcurrentHashMap.<Path>newKeySet();
+        var pool = new ForkJoinPool(parallelism);
+
+        try {
+            pool.submit(() -> tasks.parallelStream().forEach(in -> {
+                try {
+                    String hash = hash(in);
+                    hashes.put(in, hash);
+
+                    Path out = in.resolveSibling(getFilename(in) + ".bss");
+                    Properties manifest = manifests.get(in.getParent());
+                    if (incremental
+                        && hash.equals(manifest.getProperty(in.getFileName().toString()))
+                        && Files.exists(out)) {
+                        return;
                     }
-                });
+
+                    convertToBinary(in, out);
+                    converted.add(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException ue) {
+                throw ue.getCause();
+            }
+            throw new IOException(Objects.requireNonNullElse(cause, e).getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Theme compilation was interrupted", e);
+        } finally {
+            pool.shutdown();
         }
+
+        for (var entry : filesByDir.entrySet()) {
+            writeManifest(getManifestFile(dir, entry.getKey()), entry.getValue(), hashes);
+        }
+
+        return converted.stream().sorted().toList();
     }
 
     /**
@@ -95,4 +249,77 @@ public class ThemeCompiler {
         String name = f.getFileName().toString();
         return name.substring(0, name.lastIndexOf('.'));
     }
+
+    private String hash(Path f) throws IOException {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(Files.readAllBytes(f)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path getManifestFile(Path root, Path dir) {
+        return manifestDir != null
+            ? manifestDir.resolve(root.relativize(dir).toString()).resolve(MANIFEST_FILE)
+            : dir.resolve(MANIFEST_FILE);
+    }
+
+    // Reads the manifest, the result is empty if it doesn't exist or was created by other JavaFX version,
+    // because the BSS format depends on the JavaFX version.
+    private Properties readManifest(Path file) throws IOException {
+        var manifest = new Properties();
+
+        if (incremental && Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                manifest.load(reader);
+            }
+            if (!Objects.equals(getJavaFXVersion(), manifest.getProperty(VERSION_KEY))) {
+                manifest.clear();
+            }
+        }
+
+        return manifest;
+    }
+
+    // Writes hashes of all CSS files in the directory, sorted to produce reproducible output.
+    private void writeManifest(Path file, List<Path> files, Map<Path, String> hashes) throws IOException {
+        var entries = new TreeMap<String, String>();
+        for (Path f : files) {
+            String hash = hashes.get(f);
+            if (hash != null) {
+                entries.put(f.getFileName().toString(), hash);
+            }
+        }
+
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(VERSION_KEY + "=" + getJavaFXVersion() + "\n");
+            for (var entry : entries.entrySet()) {
+                writer.write(escapeKey(entry.getKey()) + "=" + entry.getValue() + "\n");
+            }
+        }
+    }
+
+    // Escapes characters that have special meaning in the properties file keys.
+    private static String escapeKey(String key) {
+        var sb = new StringBuilder(key.length());
+        for (char c : key.toCharArray()) {
+            if (c == '\\' || c == ' ' || c == ':' || c == '=' || c == '#' || c == '!') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static String getJavaFXVersion() {
+        String version = System.getProperty("javafx.runtime.version");
+        if (version != null) {
+            return version;
+        }
+
+        var descriptor = Stylesheet.class.getModule().getDescriptor();
+        return descriptor != null ? descriptor.rawVersion().orElse("") : "";
+    }
 }
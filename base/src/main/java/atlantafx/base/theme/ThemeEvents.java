@@ -0,0 +1,146 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import javafx.scene.Scene;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events emitted by the {@link ThemeManager}.
+ *
+ * <p>The {@code jdk.jfr} module is an optional dependency, so this class must only be used
+ * after checking the {@link #AVAILABLE} flag. Events are created only to check whether
+ * they are enabled, which is optimized away by JIT when there's no active recording.
+ */
+final class ThemeEvents {
+
+    /**
+     * Whether the {@code jdk.jfr} module is present in the runtime.
+     */
+    static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private ThemeEvents() {
+        // Default constructor
+    }
+
+    static void themeSwitched(ThemeManager.ThemeSwitch record) {
+        var event = new ThemeSwitchEvent();
+        if (event.shouldCommit()) {
+            event.theme = record.theme().getName();
+            event.stylesheet = record.stylesheet();
+            event.binary = record.binary();
+            event.preloaded = record.preloaded();
+            event.paletteOnly = record.paletteOnly();
+            event.scenes = record.scenes();
+            event.stylesheetUpdates = record.stylesheetUpdates();
+            event.parseTime = record.parseTime().toNanos();
+            event.applyTime = record.applyTime().toNanos();
+            event.commit();
+        }
+    }
+
+    static void optionsApplied(int options, int scenes, int stylesheetUpdates, long time) {
+        var event = new OptionApplyEvent();
+        if (event.shouldCommit()) {
+            event.options = options;
+            event.scenes = scenes;
+            event.stylesheetUpdates = stylesheetUpdates;
+            event.time = time;
+            event.commit();
+        }
+    }
+
+    static void sceneApplied(Scene scene, int options, int stylesheetUpdates, long time) {
+        var event = new SceneApplyEvent();
+        if (event.shouldCommit()) {
+            event.root = scene.getRoot().getClass().getName();
+            event.options = options;
+            event.stylesheetUpdates = stylesheetUpdates;
+            event.time = time;
+            event.commit();
+        }
+    }
+
+    //*************************************************************************
+
+    @Name("atlantafx.ThemeSwitch")
+    @Label("Theme Switch")
+    @Category({"AtlantaFX", "Theme"})
+    @Description("User-agent stylesheet change and theme options re-application")
+    static final class ThemeSwitchEvent extends Event {
+
+        @Label("Theme")
+        String theme = "";
+
+        @Label("Stylesheet")
+        String stylesheet = "";
+
+        @Label("Binary")
+        boolean binary;
+
+        @Label("Preloaded")
+        boolean preloaded;
+
+        @Label("Palette Only")
+        boolean paletteOnly;
+
+        @Label("Scenes")
+        int scenes;
+
+        @Label("Stylesheet Updates")
+        int stylesheetUpdates;
+
+        @Label("Parse Time")
+        @Timespan
+        long parseTime;
+
+        @Label("Apply Time")
+        @Timespan
+        long applyTime;
+    }
+
+    @Name("atlantafx.OptionApply")
+    @Label("Option Apply")
+    @Category({"AtlantaFX", "Theme"})
+    @Description("Theme option changes applied to open scenes")
+    static final class OptionApplyEvent extends Event {
+
+        @Label("Options")
+        int options;
+
+        @Label("Scenes")
+        int scenes;
+
+        @Label("Stylesheet Updates")
+        int stylesheetUpdates;
+
+        @Label("Time")
+        @Timespan
+        long time;
+    }
+
+    @Name("atlantafx.SceneApply")
+    @Label("Scene Apply")
+    @Category({"AtlantaFX", "Theme"})
+    @Description("Theme options applied to a single scene")
+    static final class SceneApplyEvent extends Event {
+
+        @Label("Root")
+        String root = "";
+
+        @Label("Options")
+        int options;
+
+        @Label("Stylesheet Updates")
+        int stylesheetUpdates;
+
+        @Label("Time")
+        @Timespan
+        long time;
+    }
+}
@@ -0,0 +1,263 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Produces a "flattened" variant of a compiled theme stylesheet, in which looked-up
+ * colors are replaced with their literal values.
+ *
+ * <p>All theme colors are defined as looked-up colors on the {@code .root} node and
+ * component styles refer to them by name, often through a chain of several variables,
+ * e.g. {@code -color-button-bg -> -color-bg-subtle -> -color-base-0}. JavaFX has to resolve
+ * these references through the parent chain on every CSS pass. The flattener inlines all
+ * {@code .root} variables, except for:
+ *
+ * <ul>
+ *     <li>variables that match one of the "keep" prefixes, which are the intended override
+ *     points (by default, the accent colors);</li>
+ *     <li>variables that are also defined by any other rule, because their value depends
+ *     on the node they are resolved for.</li>
+ * </ul>
+ *
+ * <p>Variable definitions themselves are preserved (with resolved values), so custom
+ * stylesheets that refer to theme colors continue to work. Note that overriding a
+ * non-kept variable at runtime has no effect on the theme styles in the flattened variant.
+ *
+ * <p>Usage:
+ * <pre>{@code
+ * java ThemeFlattener <path> [--keep <prefix>[,<prefix>...]]
+ * }</pre>
+ *
+ * @see Theme#flat(Theme)
+ */
+public class ThemeFlattener {
+
+    /**
+     * The suffix added to the file name of the flattened stylesheet.
+     */
+    public static final String SUFFIX = "-flat";
+
+    /**
+     * The variable prefixes that are not inlined by default.
+     */
+    public static final List<String> DEFAULT_KEEP = List.of("-color-accent-");
+
+    private static final Pattern REFERENCE = Pattern.compile("(?<![\\w-])-[a-zA-Z][\\w-]*");
+
+    private final List<String> keep;
+
+    /**
+     * Creates a flattener that keeps {@link #DEFAULT_KEEP} variables.
+     */
+    public ThemeFlattener() {
+        this(DEFAULT_KEEP);
+    }
+
+    /**
+     * Creates a flattener that keeps variables with the specified name prefixes.
+     *
+     * @param keep The prefixes of variables that should not be inlined.
+     */
+    public ThemeFlattener(Collection<String> keep) {
+        this.keep = List.copyOf(keep);
+    }
+
+    /**
+     * The main class that accepts the path to the directory to be scanned for CSS files.
+     * For every theme stylesheet, including the variants without effects, a flattened copy with
+     * the {@value #SUFFIX} suffix is written. Flattened copies and option stylesheets are skipped.
+     *
+     * @see #flatten(Path, Path)
+     */
+    public static void main(String[] args) {
+        try {
+            if (args.length < 1) {
+                throw new IllegalArgumentException("You must provide the source directory path");
+            }
+
+            List<String> keep = DEFAULT_KEEP;
+            if (args.length == 3 && "--keep".equals(args[1])) {
+                keep = Arrays.stream(args[2].split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+            } else if (args.length > 1) {
+                throw new IllegalArgumentException(
+                    "Unexpected arguments were found: "
+                        + Arrays.toString(Arrays.copyOfRange(args, 1, args.length))
+                );
+            }
+
+            var dir = Paths.get(args[0]);
+            if (!Files.isDirectory(dir)) {
+                throw new IllegalArgumentException("Invalid directory: " + dir);
+            }
+
+            var flattener = new ThemeFlattener(keep);
+            try (Stream<Path> stream = Files.list(dir)) {
+                for (Path f : stream.filter(ThemeFlattener::isThemeStylesheet).toList()) {
+                    String name = f.getFileName().toString();
+                    String target = name.substring(0, name.length() - ".css".length()) + SUFFIX + ".css";
+                    flattener.flatten(f, f.resolveSibling(target));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    // Returns whether the file is a theme stylesheet, as opposed to a flattened copy
+    // or the stylesheet of a theme option.
+    static boolean isThemeStylesheet(Path f) {
+        String name = f.getFileName().toString();
+        String option = ThemeOptions.NO_EFFECTS_STYLESHEET;
+        return name.endsWith(".css")
+            && !name.endsWith(SUFFIX + ".css")
+            && !name.equals(option.substring(option.lastIndexOf('/') + 1))
+            && Files.isRegularFile(f);
+    }
+
+    // Returns whether the file is a base theme stylesheet, i.e. not any of the generated variants.
+    static boolean isBaseStylesheet(Path f) {
+        return isThemeStylesheet(f) && !f.getFileName().toString().endsWith(ThemeOptions.NO_EFFECTS_SUFFIX + ".css");
+    }
+
+    /**
+     * Flattens the specified CSS file.
+     *
+     * @param in  The input file path.
+     * @param out The output file path.
+     * @throws IOException to punish you for using Java
+     */
+    public void flatten(@Nullable Path in, @Nullable Path out) throws IOException {
+        if (in == null || out == null) {
+            throw new IllegalArgumentException("Both input and output files must be specified.");
+        }
+
+        if (in.equals(out)) {
+            throw new IllegalArgumentException("Input file and output file cannot be the same.");
+        }
+
+        Files.writeString(out, flatten(Files.readString(in, StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Flattens the specified CSS text. Comments are not preserved.
+     *
+     * @param css The CSS text.
+     * @return The flattened CSS text.
+     */
+    public String flatten(String css) {
+        List<CssRules.Rule> rules = CssRules.parse(css);
+
+        var definitions = new LinkedHashMap<String, String>();
+        var contextual = new HashSet<String>();
+
+        for (var rule : rules) {
+            if (rule.declarations() == null) {
+                continue;
+            }
+            boolean root = ".root".equals(rule.selector());
+            for (var decl : rule.declarations()) {
+                if (!isVariable(decl.property())) {
+                    continue;
+                }
+                if (root) {
+                    definitions.put(decl.property(), decl.value());
+                } else {
+                    contextual.add(decl.property());
+                }
+            }
+        }
+
+        var resolver = new Resolver(definitions, contextual);
+        var sb = new StringBuilder(css.length());
+        for (var rule : rules) {
+            CssRules.write(sb, rule, resolver::substitute);
+        }
+
+        return sb.toString();
+    }
+
+    private boolean isVariable(String property) {
+        return property.startsWith("-") && !property.startsWith("-fx-");
+    }
+
+    private boolean isKept(String name) {
+        for (String prefix : keep) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //*************************************************************************
+
+    // Resolves variable references recursively, memoizing the results.
+    private final class Resolver {
+
+        private final Map<String, String> definitions;
+        private final Set<String> contextual;
+        private final Map<String, String> resolved = new HashMap<>();
+        private final Set<String> resolving = new HashSet<>();
+
+        Resolver(Map<String, String> definitions, Set<String> contextual) {
+            this.definitions = definitions;
+            this.contextual = contextual;
+        }
+
+        String substitute(String value) {
+            Matcher m = REFERENCE.matcher(value);
+            if (!m.find()) {
+                return value;
+            }
+
+            var sb = new StringBuilder(value.length());
+            do {
+                m.appendReplacement(sb, Matcher.quoteReplacement(resolve(m.group())));
+            } while (m.find());
+            m.appendTail(sb);
+            return sb.toString();
+        }
+
+        // Returns the literal value or the reference itself if it can't be inlined.
+        String resolve(String name) {
+            String definition = definitions.get(name);
+            if (definition == null || isKept(name) || contextual.contains(name)) {
+                return name;
+            }
+
+            String value = resolved.get(name);
+            if (value != null) {
+                return value;
+            }
+
+            // cyclic reference, leave it to JavaFX to report
+            if (!resolving.add(name)) {
+                return name;
+            }
+
+            value = substitute(definition);
+            resolving.remove(name);
+            resolved.put(name, value);
+            return value;
+        }
+    }
+}
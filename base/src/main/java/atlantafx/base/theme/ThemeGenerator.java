@@ -0,0 +1,365 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import atlantafx.base.util.Colour;
+import atlantafx.base.util.ColourOps;
+import atlantafx.base.util.XDG;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Generates a theme color palette from a few seed colors without the Sass toolchain.
+ *
+ * <p>Each seed color becomes step 5 of a 10-step color scale. Tints and shades are
+ * obtained by mixing the seed with the light and dark colors respectively, using the
+ * same proportions as the Primer base scale. The functional colors are derived from
+ * the scales in the same way as the {@code _color-vars.scss} does for the Primer Light
+ * and Primer Dark themes.
+ *
+ * <p>The result is a stylesheet that overrides the looked-up colors of the {@code .root}
+ * node and is meant to be used on top of a theme with the same {@link Theme#isDarkMode()},
+ * because some component colors are derived at theme compile time. Flattened themes
+ * ({@link Theme#flat(Theme)}) ignore most of the overrides.
+ *
+ * <p>Generated stylesheets are cached on disk by the hash of the seed colors, so
+ * generating the same palette again is just a file check.
+ *
+ * <pre>{@code
+ * var generator = new ThemeGenerator();
+ * Path css = generator.generate(ThemeGenerator.Seeds.primerLight().withAccent(Colour.of("#8250df")));
+ *
+ * ThemeManager.instance().setTheme(Theme.withPalette(new PrimerLight(), "Brand", css.toUri().toString()));
+ * }</pre>
+ */
+public final class ThemeGenerator {
+
+    /**
+     * The default cache directory.
+     */
+    public static final Path DEFAULT_CACHE_DIR = XDG.CACHE_HOME.resolve("atlantafx", "themes");
+
+    // must be incremented whenever the generated output changes for the same input
+    private static final int VERSION = 1;
+
+    // mixing ratios taken from the Primer base scale, see _color-scale.scss
+    private static final double[] TINTS = {0.94, 0.855, 0.68, 0.45, 0.21};
+    private static final double[] SHADES = {0.28, 0.53, 0.72, 0.89};
+
+    private static final String[] SCALES = {"base", "accent", "success", "warning", "danger"};
+
+    private final Path cacheDir;
+
+    /**
+     * Creates a generator that uses the {@link #DEFAULT_CACHE_DIR}.
+     */
+    public ThemeGenerator() {
+        this(DEFAULT_CACHE_DIR);
+    }
+
+    /**
+     * Creates a generator that uses the specified cache directory.
+     *
+     * @param cacheDir The directory to store generated stylesheets.
+     */
+    public ThemeGenerator(Path cacheDir) {
+        this.cacheDir = Objects.requireNonNull(cacheDir, "Cache directory cannot be null!");
+    }
+
+    /**
+     * Returns the path to the stylesheet generated for the specified seeds. If the stylesheet
+     * has already been generated, it's returned as is, otherwise it's generated and written
+     * to the cache directory.
+     *
+     * @param seeds The seed colors.
+     * @return The stylesheet path.
+     * @throws IOException if the stylesheet can't be written
+     */
+    public Path generate(Seeds seeds) throws IOException {
+        Path file = cacheDir.resolve(key(seeds) + ".css");
+        if (Files.isRegularFile(file)) {
+            return file;
+        }
+
+        Files.createDirectories(cacheDir);
+
+        // other application instances may generate the same file concurrently
+        Path tmp = Files.createTempFile(cacheDir, "theme", ".tmp");
+        try {
+            Files.writeString(tmp, toCss(seeds), StandardCharsets.UTF_8);
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // the same content has already been written
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        return file;
+    }
+
+    /**
+     * Returns the stylesheet text for the specified seeds.
+     */
+    public String toCss(Seeds seeds) {
+        var sb = new StringBuilder(".root {\n");
+        for (var entry : resolve(seeds).entrySet()) {
+            sb.append("  ").append(entry.getKey()).append(": ").append(entry.getValue().toHex()).append(";\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    /**
+     * Derives the looked-up colors for the specified seeds.
+     *
+     * @param seeds The seed colors.
+     * @return The map of looked-up color names to their values in the stylesheet order.
+     */
+    public Map<String, Colour> resolve(Seeds seeds) {
+        var colors = new LinkedHashMap<String, Colour>();
+        Colour dark = seeds.dark();
+        Colour light = seeds.light();
+        colors.put("-color-dark", dark);
+        colors.put("-color-light", light);
+
+        Colour[] seedColors = {seeds.base(), seeds.accent(), seeds.success(), seeds.warning(), seeds.danger()};
+        for (int i = 0; i < SCALES.length; i++) {
+            Colour[] scale = scale(seedColors[i], light, dark);
+            for (int step = 0; step < scale.length; step++) {
+                colors.put("-color-" + SCALES[i] + "-" + step, scale[step]);
+            }
+        }
+
+        if (seeds.darkMode()) {
+            putDarkVars(colors);
+        } else {
+            putLightVars(colors);
+        }
+
+        return colors;
+    }
+
+    // see _color-vars.scss
+    private static void putLightVars(Map<String, Colour> c) {
+        c.put("-color-fg-default", get(c, "base-9"));
+        c.put("-color-fg-muted", get(c, "base-6"));
+        c.put("-color-fg-subtle", get(c, "base-5"));
+        c.put("-color-fg-emphasis", get(c, "light"));
+
+        c.put("-color-bg-default", get(c, "light"));
+        c.put("-color-bg-overlay", get(c, "light"));
+        c.put("-color-bg-subtle", get(c, "base-0"));
+        c.put("-color-bg-inset", get(c, "base-0"));
+
+        var border = get(c, "base-2").toHSL();
+        c.put("-color-border-default", get(c, "base-2"));
+        c.put("-color-border-muted", Colour.hsl(border.hue(), border.saturation(),
+            Math.min(border.lightness() + 0.0003, 1.0)));
+        c.put("-color-border-subtle", alpha(get(c, "dark"), 0.15).flatten(get(c, "light")));
+        c.put("-color-shadow-default", get(c, "base-2"));
+
+        c.put("-color-neutral-emphasis-plus", get(c, "base-9"));
+        c.put("-color-neutral-emphasis", get(c, "base-5"));
+        c.put("-color-neutral-muted", alpha(get(c, "base-3"), 0.2));
+        c.put("-color-neutral-subtle", alpha(get(c, "base-1"), 0.5));
+
+        putFunctionalVars(c, "accent", 5, 5, 3, 0.4, 0, 1.0);
+        putFunctionalVars(c, "warning", 5, 4, 3, 0.4, 0, 1.0);
+        putFunctionalVars(c, "success", 5, 4, 3, 0.4, 0, 1.0);
+        putFunctionalVars(c, "danger", 5, 5, 3, 0.4, 0, 1.0);
+    }
+
+    // see primer-dark.scss
+    private static void putDarkVars(Map<String, Colour> c) {
+        c.put("-color-fg-default", get(c, "base-1"));
+        c.put("-color-fg-muted", get(c, "base-3"));
+        c.put("-color-fg-subtle", get(c, "base-4"));
+        c.put("-color-fg-emphasis", get(c, "light"));
+
+        c.put("-color-bg-default", get(c, "base-9"));
+        c.put("-color-bg-overlay", get(c, "base-9"));
+        c.put("-color-bg-subtle", get(c, "base-8"));
+        c.put("-color-bg-inset", get(c, "dark"));
+
+        c.put("-color-border-default", get(c, "base-6"));
+        c.put("-color-border-muted", get(c, "base-7"));
+        c.put("-color-border-subtle", alpha(get(c, "base-0"), 0.1).flatten(get(c, "base-9")));
+        c.put("-color-shadow-default", get(c, "dark"));
+
+        c.put("-color-neutral-emphasis-plus", get(c, "base-4"));
+        c.put("-color-neutral-emphasis", get(c, "base-4"));
+        c.put("-color-neutral-muted", alpha(get(c, "base-4"), 0.4));
+        c.put("-color-neutral-subtle", alpha(get(c, "base-4"), 0.1));
+
+        putFunctionalVars(c, "accent", 3, 5, 4, 0.4, 4, 0.15);
+        putFunctionalVars(c, "warning", 3, 5, 4, 0.4, 4, 0.15);
+        putFunctionalVars(c, "success", 3, 5, 4, 0.4, 4, 0.15);
+        putFunctionalVars(c, "danger", 4, 5, 4, 0.4, 4, 0.15);
+    }
+
+    private static void putFunctionalVars(Map<String, Colour> c, String name,
+                                          int fg, int emphasis,
+                                          int muted, double mutedAlpha,
+                                          int subtle, double subtleAlpha) {
+        c.put("-color-" + name + "-fg", get(c, name + "-" + fg));
+        c.put("-color-" + name + "-emphasis", get(c, name + "-" + emphasis));
+        c.put("-color-" + name + "-muted", alpha(get(c, name + "-" + muted), mutedAlpha));
+        c.put("-color-" + name + "-subtle", alpha(get(c, name + "-" + subtle), subtleAlpha));
+    }
+
+    // seed colors are copies, and every step is a new instance
+    private static Colour[] scale(Colour seed, Colour light, Colour dark) {
+        var scale = new Colour[TINTS.length + 1 + SHADES.length];
+        for (int i = 0; i < TINTS.length; i++) {
+            scale[i] = new Colour(ColourOps.interpolate(seed.getRGBA(), light.getRGBA(), TINTS[i]));
+        }
+        scale[TINTS.length] = seed;
+        for (int i = 0; i < SHADES.length; i++) {
+            scale[TINTS.length + 1 + i] = new Colour(ColourOps.interpolate(seed.getRGBA(), dark.getRGBA(), SHADES[i]));
+        }
+        return scale;
+    }
+
+    private static Colour get(Map<String, Colour> colors, String name) {
+        return Objects.requireNonNull(colors.get("-color-" + name), name);
+    }
+
+    private static Colour alpha(Colour color, double opacity) {
+        if (opacity >= 1.0) {
+            return color;
+        }
+        var copy = color.copy();
+        copy.setOpacity(opacity);
+        return copy;
+    }
+
+    private static String key(Seeds seeds) {
+        String input = "v" + VERSION + ":" + seeds.darkMode()
+            + ":" + seeds.base().toHex(true)
+            + ":" + seeds.accent().toHex(true)
+            + ":" + seeds.success().toHex(true)
+            + ":" + seeds.warning().toHex(true)
+            + ":" + seeds.danger().toHex(true)
+            + ":" + seeds.dark().toHex(true)
+            + ":" + seeds.light().toHex(true);
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //*************************************************************************
+
+    /**
+     * The seed colors of a generated theme. Each color (except for the dark and light colors)
+     * defines step 5 of the corresponding color scale. The colors are copied on creation and
+     * every accessor returns a new copy, so the seeds can't be modified.
+     *
+     * @param base     the neutral gray color
+     * @param accent   the accent color
+     * @param success  the success color
+     * @param warning  the warning color
+     * @param danger   the danger color
+     * @param dark     the darkest color of the palette
+     * @param light    the lightest color of the palette
+     * @param darkMode whether the palette is for a dark theme
+     */
+    public record Seeds(Colour base,
+                        Colour accent,
+                        Colour success,
+                        Colour warning,
+                        Colour danger,
+                        Colour dark,
+                        Colour light,
+                        boolean darkMode) {
+
+        public Seeds {
+            base = Objects.requireNonNull(base, "Base color cannot be null!").copy();
+            accent = Objects.requireNonNull(accent, "Accent color cannot be null!").copy();
+            success = Objects.requireNonNull(success, "Success color cannot be null!").copy();
+            warning = Objects.requireNonNull(warning, "Warning color cannot be null!").copy();
+            danger = Objects.requireNonNull(danger, "Danger color cannot be null!").copy();
+            dark = Objects.requireNonNull(dark, "Dark color cannot be null!").copy();
+            light = Objects.requireNonNull(light, "Light color cannot be null!").copy();
+        }
+
+        @Override
+        public Colour base() {
+            return base.copy();
+        }
+
+        @Override
+        public Colour accent() {
+            return accent.copy();
+        }
+
+        @Override
+        public Colour success() {
+            return success.copy();
+        }
+
+        @Override
+        public Colour warning() {
+            return warning.copy();
+        }
+
+        @Override
+        public Colour danger() {
+            return danger.copy();
+        }
+
+        @Override
+        public Colour dark() {
+            return dark.copy();
+        }
+
+        @Override
+        public Colour light() {
+            return light.copy();
+        }
+
+        /**
+         * Returns the seeds of the {@link PrimerLight} theme.
+         */
+        public static Seeds primerLight() {
+            return new Seeds(
+                Colour.of("#6e7781"), Colour.of("#0969da"), Colour.of("#1a7f37"), Colour.of("#9a6700"),
+                Colour.of("#cf222e"), Colour.of("#1b1f24"), Colour.of("#ffffff"), false
+            );
+        }
+
+        /**
+         * Returns the seeds of the {@link PrimerDark} theme.
+         */
+        public static Seeds primerDark() {
+            return new Seeds(
+                Colour.of("#484f58"), Colour.of("#1f6feb"), Colour.of("#238636"), Colour.of("#9e6a03"),
+                Colour.of("#da3633"), Colour.of("#010409"), Colour.of("#ffffff"), true
+            );
+        }
+
+        /**
+         * Returns a copy of these seeds with the specified accent color.
+         */
+        public Seeds withAccent(Colour accent) {
+            return new Seeds(base, accent, success, warning, danger, dark, light, darkMode);
+        }
+    }
+}
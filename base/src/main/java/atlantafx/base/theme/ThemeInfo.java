@@ -0,0 +1,25 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes a theme class, so that the {@link ThemeRegistry} can select the theme
+ * without instantiating it. The values must match the values returned by the theme
+ * instance methods.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ThemeInfo {
+
+    /**
+     * See {@link Theme#isDarkMode()}.
+     */
+    boolean darkMode();
+}
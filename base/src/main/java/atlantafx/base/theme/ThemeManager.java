@@ -2,6 +2,7 @@
 
 package atlantafx.base.theme;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
 import javafx.application.ColorScheme;
 import javafx.application.Platform;
@@ -17,7 +18,10 @@ import org.jspecify.annotations.Nullable;
 
 import java.lang.System.Logger;
 import java.lang.System.Logger.Level;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 /**
@@ -30,7 +34,8 @@ import java.util.function.Function;
  *
  * <h6>Initial Theme Selection</h6>
  * The manager checks the {@code atlantafx.theme} system property on startup. If the property is set, it searches
- * for a matching theme class using {@link ServiceLoader}.
+ * for a matching theme class using {@link ThemeRegistry}, which indexes {@link ServiceLoader} providers
+ * and only instantiates the matching one.
  *
  * <pre>{@code
  * java -Datlantafx.theme=NordDark -jar application.jar
@@ -40,6 +45,50 @@ import java.util.function.Function;
  * preference ({@code Platform.getPreferences().getColorScheme()}), defaulting to {@link PrimerLight} for
  * {@code LIGHT} and {@link PrimerDark} for {@code DARK}.
  *
+ * <h6>Binary Stylesheets</h6>
+ * All built-in themes are also shipped in binary (BSS) format, which is loaded noticeably faster than
+ * the text CSS because it skips parsing. The manager can prefer the BSS stylesheet when the theme provides
+ * one and the resource actually exists, falling back to the CSS stylesheet otherwise. The mode can be
+ * enabled with the {@code atlantafx.theme.bss} system property or via {@link #setPreferBinaryStylesheet(boolean)}.
+ *
+ * <pre>{@code
+ * java -Datlantafx.theme.bss=true -jar application.jar
+ * }</pre>
+ *
+ * <p>The time spent on every theme switch is recorded and available via {@link #getLastThemeSwitch()}.
+ *
+ * <h6>Instrumentation</h6>
+ * Theme switches and option updates are reported to {@link ActivityListener}s registered via
+ * {@link #addActivityListener(ActivityListener)}, including the time spent and the number of scenes and
+ * stylesheets touched. The same data is emitted as JDK Flight Recorder events ({@code atlantafx.ThemeSwitch},
+ * {@code atlantafx.OptionApply} and {@code atlantafx.SceneApply}), if the {@code jdk.jfr} module is available.
+ * When there are no listeners and no active recording, instrumentation has no measurable overhead.
+ *
+ * <h6>Preloading</h6>
+ * Loading and parsing a user-agent stylesheet happens on the JavaFX Application Thread and can take
+ * noticeable time. Use {@link #preload(Theme...)} to load candidate themes in background. Preloaded
+ * stylesheets are kept in memory in binary format, so the subsequent {@link #setTheme(Theme)} call
+ * only has to deserialize a ready stylesheet.
+ *
+ * <pre>{@code
+ * manager.preload(new PrimerLight(), new PrimerDark());
+ * }</pre>
+ *
+ * <h6>Palette Themes</h6>
+ * A theme can provide a palette stylesheet that only defines the looked-up colors on top of
+ * the user-agent stylesheet, see {@link Theme#withPalette(Theme, String, String)}. When switching
+ * between two themes that share the same user-agent stylesheet, the manager only replaces
+ * the palette stylesheet of each scene, so the user-agent stylesheet isn't parsed again.
+ *
+ * <h6>Following System Color Scheme</h6>
+ * Use {@link #setFollowSystem(boolean)} to switch between a pair of light and dark themes whenever
+ * the platform color scheme changes. Bursts of preference changes are coalesced into a single
+ * theme switch, and both themes are preloaded in advance.
+ *
+ * <pre>{@code
+ * manager.setSystemThemes(new NordLight(), new NordDark()).setFollowSystem(true);
+ * }</pre>
+ *
  * <h6>Example</h6>
  *
  * <pre>{@code
@@ -81,6 +130,43 @@ import java.util.function.Function;
  * {@code ThemeOption.Key<>("preset", Preset.class)}, especially when all changes can be made
  * in a single stylesheet.
  *
+ * <p>Built-in options, such as {@link ThemeOptions#EFFECTS}, don't need to be registered. They are
+ * registered automatically when they are changed for the first time, so they cost nothing until then.
+ *
+ * <h6>Batch Updates</h6>
+ * Every option change is applied to all open scenes immediately. To change several options at once,
+ * use {@link #batch(Runnable)} (or a pair of {@link #beginUpdate()} and {@link #endUpdate()}). Changes
+ * made inside a transaction are coalesced and applied once per scene when the transaction ends, so
+ * setting the same option several times results in a single stylesheet update. Enable
+ * {@link #setCoalesceChanges(boolean)} to also coalesce changes made outside of a transaction
+ * and apply them on the next pulse.
+ *
+ * <pre>{@code
+ * manager.batch(() -> {
+ *     manager.setOption(FONT_FAMILY, "Roboto");
+ *     manager.setOption(FONT_SIZE, 16);
+ * });
+ * }</pre>
+ *
+ * <h6>Merged Stylesheets</h6>
+ * By default, every option adds its own stylesheet to the scene root. With many options, JavaFX has
+ * to manage a lot of tiny stylesheets on every CSS pass. The manager can instead combine all option
+ * stylesheets of a node into a single one, see {@link #setMergeStylesheets(boolean)}. Fragments keep
+ * the order in which options were applied, and the combined stylesheet is rebuilt only when one of
+ * them changes.
+ *
+ * <h6>Lazy Modules</h6>
+ * Theme stylesheets contain styles for all supported components, and JavaFX matches all their
+ * selectors on every CSS pass. If an application only uses a few component types, enable
+ * {@link #setLazyModules(boolean)}, so that the manager only applies the core styles and adds
+ * the styles of a component, such as a chart or a tab pane, when it first appears in a scene.
+ *
+ * <h6>Hidden Windows</h6>
+ * Options are only applied to the scenes of showing windows. When a hidden window is shown again,
+ * all options are re-applied to its scene. Applications that keep a pool of pre-built windows can
+ * enable {@link #setDeferHiddenWindows(boolean)}, so that the manager remembers which option values
+ * and theme were applied to each scene root and only updates the stale ones on show.
+ *
  * <p>This class is not thread-safe. All methods (except {@link #instance()}) must be called on the
  * JavaFX Application Thread.
  *
@@ -91,6 +177,13 @@ public final class ThemeManager {
 
     private static final Logger LOGGER = System.getLogger(ThemeManager.class.getName());
 
+    private static final String BSS_PROPERTY = "atlantafx.theme.bss";
+    private static final int DEFAULT_PRELOAD_CACHE_SIZE = 16 * 1024 * 1024;
+    private static final String PALETTE_KEY = ThemeManager.class.getName() + ".palette";
+
+    // the manager whose option handlers are running, accessed on the FX thread only
+    private static @Nullable ThemeManager handlerOwner;
+
     private static final ThemeManager INSTANCE = new ThemeManager();
 
     /**
@@ -111,10 +204,43 @@ public final class ThemeManager {
     private final Map<Window, ChangeListener<@Nullable Scene>> sceneListeners = new IdentityHashMap<>();
     private final ListChangeListener<Window> windowListener;
 
+    private final Map<String, Boolean> stylesheetResources = new HashMap<>();
+    private boolean preferBinaryStylesheet = Boolean.getBoolean(BSS_PROPERTY);
+    private @Nullable ThemeSwitch lastThemeSwitch;
+
+    private final Map<String, StylesheetPreloader.Preloaded> preloaded = new LinkedHashMap<>(16, 0.75f, true);
+    private int preloadCacheSize = DEFAULT_PRELOAD_CACHE_SIZE;
+    private int preloadedSize = 0;
+
+    private final Set<OptionValue<?>> pendingOptions = new LinkedHashSet<>();
+    private int updateDepth = 0;
+    private boolean coalesceChanges = false;
+    private boolean pulseScheduled = false;
+
+    private boolean mergeStylesheets = false;
+    private @Nullable Set<Parent> mergeTargets;
+
+    private boolean deferHiddenWindows = false;
+
+    private final List<ThemeModule> modules = new ArrayList<>(ThemeModule.DEFAULTS);
+    private boolean lazyModules = false;
+    private @Nullable ModuleLoader moduleLoader;
+
+    private boolean followSystem = false;
+    private Theme systemLightTheme = new PrimerLight();
+    private Theme systemDarkTheme = new PrimerDark();
+    private Duration systemThemeDelay = Duration.ofMillis(250);
+    private @Nullable PauseTransition systemThemeTimer;
+    private @Nullable CompletableFuture<Void> systemThemePreload;
+    private final ChangeListener<ColorScheme> colorSchemeListener = (_, _, _) -> scheduleSystemTheme();
+
+    private final List<ActivityListener> activityListeners = new CopyOnWriteArrayList<>();
+    private int stylesheetUpdates = 0;
+
     private ThemeManager() {
         var initialTheme = findInitialTheme();
         themeProperty.set(initialTheme);
-        applyTheme(initialTheme);
+        switchTheme(initialTheme);
 
         ObservableList<Window> windows = Window.getWindows();
 
@@ -139,10 +265,7 @@ public final class ThemeManager {
 
         windows.addListener(windowListener);
 
-        themeListener = (_, _, theme) -> {
-            applyTheme(theme);
-            applyOptions();
-        };
+        themeListener = (_, _, theme) -> switchTheme(theme);
         themeProperty.addListener(themeListener);
     }
 
@@ -152,17 +275,8 @@ public final class ThemeManager {
         if (prop != null && !prop.isBlank()) {
             String name = prop.trim();
 
-            ClassLoader cl = Objects.requireNonNullElse(
-                Thread.currentThread().getContextClassLoader(), // FX-thread
-                Theme.class.getClassLoader() // Theme ClassLoader thread
-            );
-
-            ServiceLoader<Theme> loader = ServiceLoader.load(Theme.class, cl);
-            Theme theme = loader.stream()
-                .map(ServiceLoader.Provider::get)
-                .filter(t -> name.equalsIgnoreCase(t.getClass().getSimpleName()))
-                .findFirst()
-                .orElse(null);
+            // only the matching theme is instantiated
+            Theme theme = ThemeRegistry.load().find(name);
 
             if (theme != null) {
                 return theme;
@@ -181,12 +295,16 @@ public final class ThemeManager {
     // Starts tracking window scene changes to apply options.
     private void track(Window window) {
         if (window.getScene() != null) {
-            applyOptions(window.getScene());
+            refreshPalette(window.getScene());
+            refreshOptions(window.getScene());
+            refreshModules(window.getScene());
         }
 
         ChangeListener<@Nullable Scene> sceneListener = (_, _, scene) -> {
             if (scene != null) {
-                applyOptions(scene);
+                refreshPalette(scene);
+                refreshOptions(scene);
+                refreshModules(scene);
             }
         };
 
@@ -257,6 +375,301 @@ public final class ThemeManager {
         }
         return scenes;
     }
+
+    /**
+     * Returns whether the manager prefers the binary (BSS) user-agent stylesheet over the text CSS.
+     *
+     * @return {@code true} if BSS is preferred, otherwise {@code false}
+     */
+    public boolean isPreferBinaryStylesheet() {
+        return preferBinaryStylesheet;
+    }
+
+    /**
+     * Sets whether the manager should prefer the binary (BSS) user-agent stylesheet over the text CSS.
+     * If the active theme doesn't provide a BSS stylesheet or the resource can't be found, the CSS
+     * stylesheet is used instead. Changing the mode re-applies the active theme.
+     *
+     * <p>The initial value is taken from the {@code atlantafx.theme.bss} system property.
+     *
+     * @param prefer {@code true} to prefer BSS, {@code false} to always use CSS
+     */
+    public ThemeManager setPreferBinaryStylesheet(boolean prefer) {
+        if (preferBinaryStylesheet != prefer) {
+            preferBinaryStylesheet = prefer;
+            switchTheme(getTheme());
+        }
+        return this;
+    }
+
+    /**
+     * Returns whether option stylesheets are merged into a single stylesheet per node.
+     *
+     * @return {@code true} if merge mode is enabled, otherwise {@code false}
+     */
+    public boolean isMergeStylesheets() {
+        return mergeStylesheets;
+    }
+
+    /**
+     * Sets whether option stylesheets should be merged into a single stylesheet per node instead
+     * of adding a separate stylesheet for every option. Changing the mode removes option stylesheets
+     * from all scene roots and re-applies all registered options.
+     *
+     * <p>Fragments keep the order in which options were first applied, same as separate stylesheets
+     * do in the per-option mode, so options overriding the same CSS property have the same precedence
+     * in both modes.
+     *
+     * @param merge {@code true} to merge option stylesheets, {@code false} otherwise
+     */
+    public ThemeManager setMergeStylesheets(boolean merge) {
+        if (mergeStylesheets != merge) {
+            for (Scene scene : getScenes()) {
+                MergedStylesheet.clear(scene.getRoot());
+            }
+            mergeStylesheets = merge;
+            pendingOptions.clear();
+            applyOptions();
+        }
+        return this;
+    }
+
+    /**
+     * Loads and parses user-agent stylesheets of the given themes in background and caches
+     * them in binary format. When one of these themes is set later, the cached stylesheet
+     * is used instead of loading it from the original location.
+     *
+     * <p>Stylesheets that contain relative URLs can't be preloaded, because such URLs can't be
+     * resolved after the stylesheet is relocated to memory. If a theme can't be preloaded,
+     * it's loaded from the original location as usual.
+     *
+     * <p>This method can be called from any thread. The cache itself is updated on the JavaFX
+     * Application Thread.
+     *
+     * @param themes the themes to preload
+     * @return a future that completes when all themes are loaded and cached, or completes
+     *     exceptionally if any of them couldn't be loaded
+     */
+    public CompletableFuture<Void> preload(Theme... themes) {
+        var futures = new CompletableFuture<?>[themes.length];
+
+        for (int i = 0; i < themes.length; i++) {
+            Theme theme = Objects.requireNonNull(themes[i], "Theme cannot be null");
+
+            futures[i] = CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return StylesheetPreloader.load(theme);
+                    } catch (Exception e) {
+                        LOGGER.log(Level.WARNING, "Unable to preload theme '" + theme.getName() + "'", e);
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                }, StylesheetPreloader.executor())
+                .thenAcceptAsync(stylesheet -> cachePreloaded(theme, stylesheet), Platform::runLater);
+        }
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Checks whether the user-agent stylesheet of the given theme is preloaded.
+     *
+     * @param theme the theme to check
+     * @return {@code true} if the theme stylesheet is in cache, otherwise {@code false}
+     */
+    public boolean isPreloaded(Theme theme) {
+        return preloaded.containsKey(theme.getUserAgentStylesheet());
+    }
+
+    /**
+     * Sets the maximum total size of preloaded stylesheets in bytes. When the limit is exceeded,
+     * the least recently used stylesheets are evicted. The default limit is 16 MB.
+     *
+     * @param maxSize the cache size limit
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public ThemeManager setPreloadCacheSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative");
+        }
+        preloadCacheSize = maxSize;
+        evictPreloaded();
+        return this;
+    }
+
+    /**
+     * Removes all preloaded stylesheets from the cache.
+     */
+    public ThemeManager clearPreloaded() {
+        preloaded.clear();
+        preloadedSize = 0;
+        return this;
+    }
+
+    /**
+     * Returns the timing record of the most recent theme switch, including the initial theme
+     * applied on startup.
+     *
+     * @return the last theme switch record, or {@code null} if no theme has been applied yet
+     */
+    public @Nullable ThemeSwitch getLastThemeSwitch() {
+        return lastThemeSwitch;
+    }
+
+    /**
+     * Returns whether component stylesheet modules are loaded on demand.
+     *
+     * @return {@code true} if lazy mode is enabled, otherwise {@code false}
+     */
+    public boolean isLazyModules() {
+        return lazyModules;
+    }
+
+    /**
+     * Sets whether component stylesheet modules should be loaded on demand. Changing the mode
+     * re-applies the active theme.
+     *
+     * <p>In lazy mode, the user-agent stylesheet only contains the core styles, and the styles
+     * of registered components (charts, tab panes, popovers, etc.) are added to a scene when a matching
+     * component first appears in it. This reduces the number of selectors JavaFX has to match on every
+     * CSS pass. Scenes are scanned when they're shown and on every layout pulse until all modules are
+     * loaded, so components added later are picked up too. The mode only has an effect on themes
+     * that have been split with {@link ThemeSplitter}, which includes all built-in themes. Other themes
+     * are applied as usual.
+     *
+     * <p>Every scene that uses any module gets its own user-agent stylesheet, so scenes that already
+     * have a custom user-agent stylesheet are skipped. Loading a new module re-parses the combined
+     * stylesheet, unless another scene uses the same set of modules. Preloaded and binary stylesheets
+     * aren't used in lazy mode.
+     *
+     * @param lazy {@code true} to load component modules on demand, {@code false} to use
+     *             the full user-agent stylesheet
+     * @see ThemeModule
+     */
+    public ThemeManager setLazyModules(boolean lazy) {
+        if (lazyModules != lazy) {
+            lazyModules = lazy;
+            switchTheme(getTheme());
+        }
+        return this;
+    }
+
+    /**
+     * Registers a custom component module. The module stylesheets must be generated with
+     * {@link ThemeSplitter} using the same module list.
+     *
+     * @param module the module to register
+     * @throws IllegalStateException if a module with the same name is already registered
+     */
+    public ThemeManager registerModule(ThemeModule module) {
+        Objects.requireNonNull(module, "Module cannot be null");
+        if (modules.stream().anyMatch(m -> m.name().equals(module.name()))) {
+            throw new IllegalStateException("Theme module '" + module.name() + "' is already registered");
+        }
+        modules.add(module);
+        if (lazyModules) {
+            switchTheme(getTheme());
+        }
+        return this;
+    }
+
+    /**
+     * Returns all registered component modules in the cascade order.
+     *
+     * @return an unmodifiable list of modules
+     */
+    public List<ThemeModule> getModules() {
+        return Collections.unmodifiableList(modules);
+    }
+
+    /**
+     * Returns the names of the component modules loaded for the scene in lazy mode.
+     *
+     * @param scene the scene to check
+     * @return the loaded module names, or an empty set if none
+     */
+    public Set<String> getLoadedModules(Scene scene) {
+        return ModuleLoader.getLoaded(scene);
+    }
+
+    /**
+     * Returns whether the manager follows the platform color scheme.
+     *
+     * @return {@code true} if follow-system mode is enabled, otherwise {@code false}
+     */
+    public boolean isFollowSystem() {
+        return followSystem;
+    }
+
+    /**
+     * Sets whether the manager should switch between the light and the dark theme, see
+     * {@link #setSystemThemes(Theme, Theme)}, according to the platform color scheme
+     * ({@code Platform.getPreferences().getColorScheme()}). Enabling the mode preloads both
+     * themes, see {@link #preload(Theme...)}, and applies the theme that matches the current
+     * color scheme as soon as the preloading is finished, so that none of the switches has to
+     * parse the stylesheet on the JavaFX Application Thread. If a theme can't be preloaded,
+     * it's applied anyway.
+     *
+     * <p>Operating systems tend to report several preference changes during a color scheme
+     * transition. Changes are coalesced, and the theme is switched once the color scheme
+     * hasn't changed for the delay set via {@link #setSystemThemeDelay(Duration)}.
+     * Setting a theme manually doesn't disable the mode, so the next color scheme change
+     * overrides it.
+     *
+     * @param follow {@code true} to follow the platform color scheme, {@code false} otherwise
+     */
+    public ThemeManager setFollowSystem(boolean follow) {
+        if (followSystem == follow) {
+            return this;
+        }
+
+        followSystem = follow;
+        var colorScheme = Platform.getPreferences().colorSchemeProperty();
+        if (follow) {
+            colorScheme.addListener(colorSchemeListener);
+            preloadSystemThemes();
+        } else {
+            colorScheme.removeListener(colorSchemeListener);
+            systemThemePreload = null;
+            if (systemThemeTimer != null) {
+                systemThemeTimer.stop();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Sets the themes to be used in follow-system mode. The defaults are {@link PrimerLight}
+     * and {@link PrimerDark}. If the mode is enabled, both themes are preloaded, and the theme
+     * that matches the current color scheme is applied when the preloading is finished.
+     *
+     * @param light the theme for the light color scheme
+     * @param dark  the theme for the dark color scheme
+     * @see #setFollowSystem(boolean)
+     */
+    public ThemeManager setSystemThemes(Theme light, Theme dark) {
+        systemLightTheme = Objects.requireNonNull(light, "Light theme cannot be null");
+        systemDarkTheme = Objects.requireNonNull(dark, "Dark theme cannot be null");
+        if (followSystem) {
+            preloadSystemThemes();
+        }
+        return this;
+    }
+
+    /**
+     * Sets the time the platform color scheme must stay unchanged before the theme is switched
+     * in follow-system mode. The default delay is 250 milliseconds.
+     *
+     * @param delay the delay, zero to switch on the next pulse
+     * @throws IllegalArgumentException if the delay is negative
+     */
+    public ThemeManager setSystemThemeDelay(Duration delay) {
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("Delay cannot be negative");
+        }
+        systemThemeDelay = delay;
+        return this;
+    }
     //endregion
 
     //region OPTIONS
@@ -292,7 +705,10 @@ public final class ThemeManager {
      */
     public <T> ThemeManager unregister(ThemeOption<T> option) {
         ThemeOption.Key<T> key = option.key();
-        options.remove(key);
+        OptionValue<?> removed = options.remove(key);
+        if (removed != null) {
+            pendingOptions.remove(removed);
+        }
         return this;
     }
 
@@ -307,7 +723,8 @@ public final class ThemeManager {
     }
 
     /**
-     * Retrieves the current value of an option.
+     * Retrieves the current value of an option. For a built-in option that hasn't been
+     * changed yet, this is its default value.
      *
      * @param key the option key
      * @param <T> the value type
@@ -315,11 +732,18 @@ public final class ThemeManager {
      * @throws IllegalArgumentException if the option is not registered
      */
     public <T> @Nullable T getOption(ThemeOption.Key<T> key) {
-        return requireOption(key).get();
+        OptionValue<T> option = findOption(key);
+        if (option != null) {
+            return option.get();
+        }
+        return requireBuiltIn(key).defaultValue();
     }
 
     /**
-     * Sets a new value for a registered option and applies it.
+     * Sets a new value for a registered option and applies it. Inside a transaction, the new value
+     * is available via {@link #getOption(ThemeOption.Key)} immediately, but scenes are only updated
+     * when the outermost transaction ends, see {@link #beginUpdate()}. Built-in options are
+     * registered on the first call.
      *
      * @param key   the option key
      * @param value the new value to set
@@ -328,14 +752,18 @@ public final class ThemeManager {
      * @throws ClassCastException       if the value type does not match the key type
      */
     public <T> ThemeManager setOption(ThemeOption.Key<T> key, @Nullable T value) {
-        OptionValue<T> option = requireOption(key);
+        OptionValue<T> option = findOption(key);
+        if (option == null) {
+            register(requireBuiltIn(key));
+            option = Objects.requireNonNull(findOption(key));
+        }
 
         if (value != null && !key.type().isInstance(value)) {
             throw new ClassCastException("Value for '" + key.id() + "' must be instance of " + key.type().getName());
         }
 
         option.set(value);
-        applyOption(option);
+        scheduleOption(option);
 
         return this;
     }
@@ -348,9 +776,14 @@ public final class ThemeManager {
      * @throws IllegalArgumentException if the option is not registered
      */
     public <T> ThemeManager resetOption(ThemeOption.Key<T> key) {
-        OptionValue<T> option = requireOption(key);
+        OptionValue<T> option = findOption(key);
+        if (option == null) {
+            // a built-in option that has never been changed, nothing to reset
+            requireBuiltIn(key);
+            return this;
+        }
         option.set(option.option().defaultValue());
-        applyOption(option);
+        scheduleOption(option);
         return this;
     }
 
@@ -358,10 +791,135 @@ public final class ThemeManager {
      * Resets all registered options to their default values and applies them.
      */
     public ThemeManager resetOptions() {
-        for (OptionValue<?> option : options.values()) {
-            option.reset();
+        return batch(() -> {
+            for (OptionValue<?> option : options.values()) {
+                option.reset();
+                scheduleOption(option);
+            }
+        });
+    }
+
+    /**
+     * Starts a transaction. All option changes made until the matching {@link #endUpdate()}
+     * call are collected and applied once per scene when the outermost transaction ends.
+     * Transactions can be nested.
+     */
+    public ThemeManager beginUpdate() {
+        updateDepth++;
+        return this;
+    }
+
+    /**
+     * Ends a transaction started with {@link #beginUpdate()}. If this is the outermost
+     * transaction, all collected option changes are applied to all open scenes.
+     *
+     * @throws IllegalStateException if there is no matching {@link #beginUpdate()} call
+     */
+    public ThemeManager endUpdate() {
+        if (updateDepth == 0) {
+            throw new IllegalStateException("endUpdate() called without matching beginUpdate()");
+        }
+
+        updateDepth--;
+        if (updateDepth == 0) {
+            applyPendingOptions();
+        }
+
+        return this;
+    }
+
+    /**
+     * Executes the given action in a transaction, so that all option changes made
+     * inside it are applied once per scene after the action completes.
+     *
+     * @param action the action that modifies theme options
+     */
+    public ThemeManager batch(Runnable action) {
+        beginUpdate();
+        try {
+            action.run();
+        } finally {
+            endUpdate();
+        }
+        return this;
+    }
+
+    /**
+     * Returns whether option changes made outside of a transaction are applied on the next pulse.
+     *
+     * @return {@code true} if changes are coalesced, otherwise {@code false}
+     */
+    public boolean isCoalesceChanges() {
+        return coalesceChanges;
+    }
+
+    /**
+     * Sets whether option changes made outside of a transaction should be coalesced and applied
+     * on the next pulse instead of immediately. The new values are available via
+     * {@link #getOption(ThemeOption.Key)} right away, but scenes are updated once per pulse,
+     * so that setting options in a row, e.g. from a slider listener, results in a single stylesheet
+     * update per scene. Disabling the mode applies pending changes immediately.
+     *
+     * @param coalesce {@code true} to apply changes on the next pulse, {@code false} to apply them immediately
+     */
+    public ThemeManager setCoalesceChanges(boolean coalesce) {
+        coalesceChanges = coalesce;
+        if (!coalesce && updateDepth == 0) {
+            applyPendingOptions();
         }
-        applyOptions();
+        return this;
+    }
+
+    /**
+     * Checks whether a transaction is currently in progress.
+     *
+     * @return {@code true} if inside of a transaction, otherwise {@code false}
+     */
+    public boolean isUpdating() {
+        return updateDepth > 0;
+    }
+
+    /**
+     * Returns whether options are applied to a window scene incrementally when the window is shown.
+     *
+     * @return {@code true} if deferred mode is enabled, otherwise {@code false}
+     */
+    public boolean isDeferHiddenWindows() {
+        return deferHiddenWindows;
+    }
+
+    /**
+     * Sets whether options should be applied to a window scene incrementally when the window is shown.
+     *
+     * <p>Hidden windows are never updated, because only showing windows are tracked. By default, all
+     * options are re-applied when the window is shown again. In deferred mode, the manager records
+     * the theme and option values applied to each scene root, and on show only applies the options
+     * that have been changed since. If the theme has been changed, all options are applied.
+     *
+     * @param defer {@code true} to apply only stale options on show, {@code false} to apply all
+     */
+    public ThemeManager setDeferHiddenWindows(boolean defer) {
+        deferHiddenWindows = defer;
+        return this;
+    }
+
+    /**
+     * Adds a listener that is notified about theme switches and option updates.
+     *
+     * @param listener the listener to add
+     */
+    public ThemeManager addActivityListener(ActivityListener listener) {
+        activityListeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+        return this;
+    }
+
+    /**
+     * Removes a previously added activity listener.
+     *
+     * @param listener the listener to remove
+     */
+    public ThemeManager removeActivityListener(ActivityListener listener) {
+        activityListeners.remove(listener);
         return this;
     }
 
@@ -371,49 +929,373 @@ public final class ThemeManager {
     public void dispose() {
         Window.getWindows().removeListener(windowListener);
         themeProperty.removeListener(themeListener);
+        setFollowSystem(false);
 
         sceneListeners.forEach((window, listener) ->
             window.sceneProperty().removeListener(listener));
         sceneListeners.clear();
+        pendingOptions.clear();
     }
 
     //*************************************************************************
 
-    private void applyTheme(Theme theme) {
-        Application.setUserAgentStylesheet(theme.getUserAgentStylesheet());
-    }
+    // Applies the theme user-agent stylesheet and all registered options, and records the time spent.
+    private void switchTheme(Theme theme) {
+        long start = System.nanoTime();
+        moduleLoader = lazyModules ? ModuleLoader.create(theme, modules) : null;
+        var preloadedStylesheet = moduleLoader == null ? preloaded.get(theme.getUserAgentStylesheet()) : null;
+        String source;
+        String stylesheet;
+
+        if (moduleLoader != null) {
+            source = moduleLoader.getCoreStylesheet();
+            stylesheet = source;
+        } else if (preloadedStylesheet != null) {
+            source = preloadedStylesheet.source();
+            stylesheet = preloadedStylesheet.uri();
+        } else {
+            source = resolveStylesheet(theme);
+            stylesheet = source;
+        }
 
-    // Applies a single option value to all open scenes.
-    private void applyOption(OptionValue<?> value) {
-        var theme = themeProperty.get();
+        // themes that only differ in palette share the same user-agent stylesheet
+        boolean paletteOnly = (theme.getPaletteStylesheet() != null || hasPalette(lastThemeSwitch))
+            && stylesheet.equals(Application.getUserAgentStylesheet());
+        if (!paletteOnly) {
+            Application.setUserAgentStylesheet(stylesheet);
+        }
+
+        long parsed = System.nanoTime();
+        int stylesheetsBefore = stylesheetUpdates;
+        pendingOptions.clear();
+        int scenes = applyOptions();
         for (Scene scene : getScenes()) {
-            value.apply(theme, scene);
+            refreshPalette(scene);
+            refreshModules(scene);
+        }
+        long applied = System.nanoTime();
+
+        lastThemeSwitch = new ThemeSwitch(
+            theme,
+            source,
+            preloadedStylesheet != null || (moduleLoader == null && !source.equals(theme.getUserAgentStylesheet())),
+            preloadedStylesheet != null,
+            paletteOnly,
+            scenes,
+            stylesheetUpdates - stylesheetsBefore,
+            Duration.ofNanos(parsed - start),
+            Duration.ofNanos(applied - parsed)
+        );
+        LOGGER.log(Level.DEBUG, lastThemeSwitch);
+
+        if (ThemeEvents.AVAILABLE) {
+            ThemeEvents.themeSwitched(lastThemeSwitch);
+        }
+        for (var listener : activityListeners) {
+            listener.themeSwitched(lastThemeSwitch);
+        }
+    }
+
+    private static boolean hasPalette(@Nullable ThemeSwitch themeSwitch) {
+        return themeSwitch != null && themeSwitch.theme().getPaletteStylesheet() != null;
+    }
+
+    // Restarts the delay on every color scheme change, so that only the last one is applied.
+    private void scheduleSystemTheme() {
+        var timer = systemThemeTimer;
+        if (timer == null) {
+            timer = new PauseTransition();
+            timer.setOnFinished(_ -> applySystemTheme());
+            systemThemeTimer = timer;
         }
+        timer.setDuration(javafx.util.Duration.millis(systemThemeDelay.toMillis()));
+        timer.playFromStart();
     }
 
-    // Applies all registered options to a specific scene.
-    private void applyOptions(Scene scene) {
+    // Applies the theme that matches the platform color scheme, if it's not applied yet.
+    private void applySystemTheme() {
+        if (followSystem) {
+            setTheme(Platform.getPreferences().getColorScheme() == ColorScheme.DARK
+                ? systemDarkTheme
+                : systemLightTheme
+            );
+        }
+    }
+
+    // Applies the system theme once both themes are preloaded. Only the latest request
+    // is applied, and failures are logged, so the theme is loaded as usual.
+    private void preloadSystemThemes() {
+        var future = preload(systemLightTheme, systemDarkTheme);
+        systemThemePreload = future;
+        future.whenCompleteAsync((_, _) -> {
+            if (systemThemePreload == future) {
+                systemThemePreload = null;
+                applySystemTheme();
+            }
+        }, Platform::runLater);
+    }
+
+    // Picks BSS if preferred and available, falls back to CSS otherwise.
+    private String resolveStylesheet(Theme theme) {
+        if (preferBinaryStylesheet) {
+            String bss = theme.getUserAgentStylesheetBSS();
+            if (bss != null && stylesheetExists(theme, bss)) {
+                return bss;
+            }
+        }
+        return theme.getUserAgentStylesheet();
+    }
+
+    private void cachePreloaded(Theme theme, StylesheetPreloader.Preloaded stylesheet) {
+        var previous = preloaded.put(theme.getUserAgentStylesheet(), stylesheet);
+        if (previous != null) {
+            preloadedSize -= previous.size();
+        }
+        preloadedSize += stylesheet.size();
+        evictPreloaded();
+    }
+
+    // Removes the least recently used stylesheets until the cache fits the size limit.
+    private void evictPreloaded() {
+        var it = preloaded.values().iterator();
+        while (preloadedSize > preloadCacheSize && it.hasNext()) {
+            preloadedSize -= it.next().size();
+            it.remove();
+        }
+    }
+
+    // Checks that the stylesheet resource can be found. Absolute URLs are trusted as is,
+    // because opening a connection just to check them is more expensive than parsing CSS.
+    private boolean stylesheetExists(Theme theme, String stylesheet) {
+        return stylesheetResources.computeIfAbsent(stylesheet, path -> {
+            if (path.indexOf(':') > 0) {
+                return true;
+            }
+            boolean exists = theme.getClass().getResource(path.startsWith("/") ? path : "/" + path) != null;
+            if (!exists) {
+                LOGGER.log(Level.DEBUG, "Binary stylesheet '%s' not found, falling back to CSS".formatted(path));
+            }
+            return exists;
+        });
+    }
+
+    // Marks an option as changed and applies it right away or on the next pulse in coalescing mode,
+    // unless a transaction is in progress, in which case it's applied when the outermost transaction ends.
+    private void scheduleOption(OptionValue<?> option) {
+        pendingOptions.add(option);
+        if (updateDepth > 0) {
+            return;
+        }
+
+        if (!coalesceChanges) {
+            applyPendingOptions();
+        } else if (!pulseScheduled) {
+            pulseScheduled = true;
+            Platform.runLater(() -> {
+                pulseScheduled = false;
+                // otherwise the changes are applied when the transaction ends
+                if (updateDepth == 0) {
+                    applyPendingOptions();
+                }
+            });
+        }
+    }
+
+    // Applies all changed options to all open scenes, each option once per scene.
+    private void applyPendingOptions() {
+        if (pendingOptions.isEmpty()) {
+            return;
+        }
+
+        var pending = List.copyOf(pendingOptions);
+        pendingOptions.clear();
+
+        long start = System.nanoTime();
+        int stylesheetsBefore = stylesheetUpdates;
         Theme theme = themeProperty.get();
-        for (var option : options.values()) {
-            option.apply(theme, scene);
+        var scenes = getScenes();
+
+        for (Scene scene : scenes) {
+            applyOptions(scene, theme, pending);
         }
+
+        fireOptionsApplied(pending.size(), scenes.size(), stylesheetUpdates - stylesheetsBefore, start);
     }
 
-    // Applies all registered options to all open scenes.
-    private void applyOptions() {
-        for (var scene : getScenes()) {
-            applyOptions(scene);
+    // Replaces the palette stylesheet of the previous theme with the palette of the current one.
+    private void refreshPalette(Scene scene) {
+        if (applyPalette(scene, themeProperty.get().getPaletteStylesheet())) {
+            stylesheetUpdates++;
         }
     }
 
-    // Finds an option wrapper or throws an exception.
+    // The palette stylesheet is kept at the start of the scene stylesheet list, so that
+    // application stylesheets and theme options can override the palette colors.
+    static boolean applyPalette(Scene scene, @Nullable String palette) {
+        var previous = scene.getProperties().get(PALETTE_KEY) instanceof String s ? s : null;
+        if (Objects.equals(previous, palette)) {
+            return false;
+        }
+
+        var stylesheets = scene.getStylesheets();
+        int index = previous != null ? stylesheets.indexOf(previous) : -1;
+
+        if (palette == null) {
+            if (index != -1) {
+                stylesheets.remove(index);
+            }
+            scene.getProperties().remove(PALETTE_KEY);
+        } else {
+            if (index != -1) {
+                stylesheets.set(index, palette);
+            } else {
+                stylesheets.add(0, palette);
+            }
+            scene.getProperties().put(PALETTE_KEY, palette);
+        }
+        return true;
+    }
+
+    // Loads component modules used by the scene in lazy mode, or restores
+    // the scene user-agent stylesheet if lazy mode has been disabled.
+    private void refreshModules(Scene scene) {
+        if (moduleLoader != null) {
+            if (moduleLoader.refresh(scene, modules, () -> scanModules(scene))) {
+                stylesheetUpdates++;
+            }
+        } else {
+            ModuleLoader.detach(scene);
+        }
+    }
+
+    // Picks up components added after the scene has been shown. Adding a node requests
+    // layout up to the root, so there's nothing to scan if the root layout is clean.
+    private void scanModules(Scene scene) {
+        if (moduleLoader != null && !moduleLoader.isComplete(scene) && scene.getRoot().isNeedsLayout()) {
+            refreshModules(scene);
+        }
+    }
+
+    // Applies options to a scene of a window that has just been shown or has got a new scene.
+    private void refreshOptions(Scene scene) {
+        long start = System.nanoTime();
+        int stylesheetsBefore = stylesheetUpdates;
+        Theme theme = themeProperty.get();
+        Collection<OptionValue<?>> values = options.values();
+
+        if (deferHiddenWindows) {
+            var state = AppliedState.on(scene.getRoot());
+            boolean themeChanged = state.theme != theme;
+            values = values.stream()
+                .filter(option -> themeChanged || !state.isApplied(option))
+                .toList();
+        }
+
+        if (!values.isEmpty()) {
+            applyOptions(scene, theme, values);
+            fireOptionsApplied(values.size(), 1, stylesheetUpdates - stylesheetsBefore, start);
+        }
+    }
+
+    // Applies the given options to a scene, rebuilding merged stylesheets only once.
+    private void applyOptions(Scene scene, Theme theme, Collection<OptionValue<?>> values) {
+        long start = System.nanoTime();
+        int stylesheetsBefore = stylesheetUpdates;
+
+        mergeStylesheets(() -> {
+            for (var option : values) {
+                applyOption(option, theme, scene);
+            }
+        });
+
+        if (ThemeEvents.AVAILABLE) {
+            ThemeEvents.sceneApplied(scene, values.size(), stylesheetUpdates - stylesheetsBefore,
+                System.nanoTime() - start);
+        }
+    }
+
+    // Runs option handlers on behalf of this manager, so that the changes they apply
+    // follow the manager settings, e.g. the merge mode.
+    void runHandlers(Runnable action) {
+        ThemeManager previous = handlerOwner;
+        handlerOwner = this;
+        try {
+            action.run();
+        } finally {
+            handlerOwner = previous;
+        }
+    }
+
+    // Applies a single option to a scene and records it if deferred mode is enabled.
+    private void applyOption(OptionValue<?> option, Theme theme, Scene scene) {
+        option.apply(this, theme, scene);
+        if (deferHiddenWindows) {
+            AppliedState.on(scene.getRoot()).update(option, theme);
+        }
+    }
+
+    // Applies all registered options to all open scenes and returns the number of scenes.
+    private int applyOptions() {
+        Theme theme = themeProperty.get();
+        var scenes = getScenes();
+        for (var scene : scenes) {
+            applyOptions(scene, theme, options.values());
+        }
+        return scenes.size();
+    }
+
+    private void fireOptionsApplied(int options, int scenes, int stylesheets, long start) {
+        if (!ThemeEvents.AVAILABLE && activityListeners.isEmpty()) {
+            return;
+        }
+
+        long time = System.nanoTime() - start;
+        if (ThemeEvents.AVAILABLE) {
+            ThemeEvents.optionsApplied(options, scenes, stylesheets, time);
+        }
+        if (!activityListeners.isEmpty()) {
+            var update = new OptionUpdate(options, scenes, stylesheets, Duration.ofNanos(time));
+            for (var listener : activityListeners) {
+                listener.optionsApplied(update);
+            }
+        }
+    }
+
+    // Runs option handlers and then rebuilds merged stylesheets once per modified node,
+    // so that applying several options doesn't rebuild the same stylesheet several times.
+    private void mergeStylesheets(Runnable action) {
+        if (!mergeStylesheets || mergeTargets != null) {
+            action.run();
+            return;
+        }
+
+        mergeTargets = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            action.run();
+        } finally {
+            var targets = mergeTargets;
+            mergeTargets = null;
+            for (Parent node : targets) {
+                if (MergedStylesheet.on(node).apply(node)) {
+                    stylesheetUpdates++;
+                }
+            }
+        }
+    }
+
+    // Finds a registered option wrapper.
     @SuppressWarnings("unchecked")
-    private <T> OptionValue<T> requireOption(ThemeOption.Key<T> key) {
-        OptionValue<?> option = options.get(key);
+    private <T> @Nullable OptionValue<T> findOption(ThemeOption.Key<T> key) {
+        return (OptionValue<T>) options.get(key);
+    }
+
+    // Finds a built-in option that isn't registered yet or throws an exception.
+    private <T> ThemeOption<T> requireBuiltIn(ThemeOption.Key<T> key) {
+        ThemeOption<T> option = ThemeOptions.builtIn(key);
         if (option == null) {
             throw new IllegalArgumentException("Option not registered: " + key);
         }
-        return (OptionValue<T>) option;
+        return option;
     }
 
     // Internal wrapper that stores an option and its current value.
@@ -421,6 +1303,7 @@ public final class ThemeManager {
 
         private final ThemeOption<T> option;
         private @Nullable T value;
+        private int revision = 0;
 
         OptionValue(ThemeOption<T> option, @Nullable T value) {
             this.option = option;
@@ -437,22 +1320,99 @@ public final class ThemeManager {
 
         public void set(@Nullable T value) {
             this.value = value;
+            this.revision++;
         }
 
         public void reset() {
-            this.value = option.defaultValue();
+            set(option.defaultValue());
+        }
+
+        public int revision() {
+            return revision;
         }
 
-        public void apply(Theme theme, Scene scene) {
-            option.apply(new Change<>(theme, value, scene));
+        public void apply(ThemeManager manager, Theme theme, Scene scene) {
+            manager.runHandlers(() -> option.apply(new Change<>(theme, value, scene)));
         }
     }
 
     //*************************************************************************
 
+    /**
+     * Contains timing data of a single theme switch.
+     *
+     * @param theme      the applied theme
+     * @param stylesheet the path of the user-agent stylesheet that was actually used
+     * @param binary     whether the stylesheet was loaded in BSS format
+     * @param preloaded  whether the stylesheet was taken from the preload cache
+     * @param paletteOnly whether only the palette stylesheet was replaced, because the previous
+     *                   theme uses the same user-agent stylesheet, see {@link Theme#getPaletteStylesheet()}
+     * @param scenes     the number of scenes options were re-applied to
+     * @param stylesheetUpdates the number of option stylesheets added, replaced or removed
+     * @param parseTime  the time spent in {@link Application#setUserAgentStylesheet(String)},
+     *                   which includes loading and parsing of the stylesheet
+     * @param applyTime  the time spent to re-apply theme options to all open scenes
+     */
+    public record ThemeSwitch(Theme theme,
+                              String stylesheet,
+                              boolean binary,
+                              boolean preloaded,
+                              boolean paletteOnly,
+                              int scenes,
+                              int stylesheetUpdates,
+                              Duration parseTime,
+                              Duration applyTime) {
+
+        /**
+         * Returns the total time of the theme switch.
+         */
+        public Duration totalTime() {
+            return parseTime.plus(applyTime);
+        }
+    }
+
+    /**
+     * Contains data of a single option update, which happens when changed options are applied
+     * to open scenes or when options are applied to the scene of a newly shown window.
+     *
+     * @param options           the number of applied options
+     * @param scenes            the number of updated scenes
+     * @param stylesheetUpdates the number of option stylesheets added, replaced or removed
+     * @param time              the total time spent
+     */
+    public record OptionUpdate(int options, int scenes, int stylesheetUpdates, Duration time) {
+    }
+
+    /**
+     * Receives notifications about theme manager activity. All methods are called
+     * on the JavaFX Application Thread.
+     */
+    public interface ActivityListener {
+
+        /**
+         * Called after the user-agent stylesheet is changed and theme options are re-applied.
+         *
+         * @param event the theme switch data
+         */
+        default void themeSwitched(ThemeSwitch event) {
+        }
+
+        /**
+         * Called after option changes are applied.
+         *
+         * @param event the option update data
+         */
+        default void optionsApplied(OptionUpdate event) {
+        }
+    }
+
     /**
      * Carries option change data for a specific scene.
      *
+     * <p>Stylesheets are merged according to {@link #setMergeStylesheets(boolean)} only when
+     * the change is applied by the theme manager. A change that is created and applied on its
+     * own always adds a separate stylesheet.
+     *
      * @param theme the active theme
      * @param value the current option value
      * @param scene the target scene being updated
@@ -464,13 +1424,14 @@ public final class ThemeManager {
          * Applies or replaces a dynamic CSS stylesheet on a scene's root.
          *
          * <p>If the value is present, the generated CSS is encoded and appended or updated in place.
-         * If the value is {@code null}, any previously added CSS with the same identifier is removed.
+         * If the value is {@code null} or the supplier returns {@code null}, any previously added
+         * CSS with the same identifier is removed.
          *
          * @param id            the unique option identifier
          * @param scene         the target scene
          * @param styleSupplier function generating plain CSS from the option value
          */
-        public void applyStylesheet(String id, Scene scene, Function<T, String> styleSupplier) {
+        public void applyStylesheet(String id, Scene scene, Function<T, @Nullable String> styleSupplier) {
             applyStylesheet(id, scene.getRoot(), styleSupplier);
         }
 
@@ -478,35 +1439,242 @@ public final class ThemeManager {
          * Applies or replaces a dynamic CSS stylesheet on a parent node.
          *
          * <p>If the value is present, the generated CSS is encoded and appended or updated in place.
-         * If the value is {@code null}, any previously added CSS with the same identifier is removed.
+         * If the value is {@code null} or the supplier returns {@code null}, any previously added
+         * CSS with the same identifier is removed.
+         *
+         * <p>Encoded stylesheets are cached by option identifier, theme, value and the place in code
+         * where the style supplier is defined, so all suppliers created by the same lambda expression
+         * are expected to produce the same CSS for the same value. If the CSS depends on anything
+         * else, e.g. another option, make it part of the option value. Re-applying a stylesheet
+         * that is already set doesn't modify the stylesheet list at all.
          *
          * @param id            the unique option identifier
          * @param node          the target parent node
          * @param styleSupplier function generating plain CSS from the option value
          */
-        public void applyStylesheet(String id, Parent node, Function<T, String> styleSupplier) {
-            var stylesheets = node.getStylesheets();
-            String marker = "/*option:" + id + "*/";
-
-            int index = -1;
-            for (int i = 0; i < stylesheets.size(); i++) {
-                if (stylesheets.get(i).endsWith(marker)) {
-                    index = i;
-                    break;
+        public void applyStylesheet(String id, Parent node, Function<T, @Nullable String> styleSupplier) {
+            var cache = StylesheetCache.forOption(id);
+            var encoded = value != null ? cache.encode(theme, value, styleSupplier) : null;
+            var manager = handlerOwner;
+
+            if (manager != null && manager.mergeStylesheets) {
+                var merged = MergedStylesheet.on(node);
+                if (merged.put(id, encoded != null ? encoded.css() : null)) {
+                    if (manager.mergeTargets != null) {
+                        manager.mergeTargets.add(node);
+                    } else if (merged.apply(node)) {
+                        manager.stylesheetUpdates++;
+                    }
                 }
+                return;
             }
 
-            if (value != null) {
-                String css = Styles.encode(styleSupplier.apply(value) + "\n" + marker);
+            var stylesheets = node.getStylesheets();
+            var slots = StylesheetCache.slots(node);
+            int index = StylesheetCache.indexOf(stylesheets, slots, id, cache.marker);
+            boolean updated = false;
+
+            if (encoded != null) {
+                String css = encoded.uri();
 
                 if (index != -1) {
-                    stylesheets.set(index, css);
+                    if (!css.equals(stylesheets.get(index))) {
+                        stylesheets.set(index, css);
+                        updated = true;
+                    }
                 } else {
                     stylesheets.add(css);
+                    slots.put(id, stylesheets.size() - 1);
+                    updated = true;
                 }
             } else if (index != -1) {
                 stylesheets.remove(index);
+                slots.remove(id);
+                updated = true;
+            }
+
+            if (updated && manager != null) {
+                manager.stylesheetUpdates++;
+            }
+        }
+    }
+
+    // Caches encoded option stylesheets and keeps a per-node index of their positions
+    // in the stylesheet list. All access happens on the FX thread.
+    private static final class StylesheetCache {
+
+        private static final String SLOTS_KEY = ThemeManager.class.getName() + ".slots";
+        private static final int MAX_OPTIONS = 128;
+        private static final int MAX_VALUES = 16;
+
+        private static final Map<String, StylesheetCache> CACHES = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StylesheetCache> eldest) {
+                return size() > MAX_OPTIONS;
+            }
+        };
+
+        private final String marker;
+        private final Map<CacheKey, Encoded> values = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Encoded> eldest) {
+                return size() > MAX_VALUES;
+            }
+        };
+        private @Nullable Theme theme;
+
+        private StylesheetCache(String id) {
+            this.marker = "/*option:" + id + "*/";
+        }
+
+        static StylesheetCache forOption(String id) {
+            return CACHES.computeIfAbsent(id, StylesheetCache::new);
+        }
+
+        // Returns the node's option id to stylesheet position index, creating it on the first access.
+        @SuppressWarnings("unchecked")
+        static Map<String, Integer> slots(Parent node) {
+            return (Map<String, Integer>) node.getProperties().computeIfAbsent(SLOTS_KEY, _ -> new HashMap<>());
+        }
+
+        // Uses the recorded position if it's still valid, otherwise falls back to linear search,
+        // because the stylesheet list can be modified by the application code.
+        static int indexOf(List<String> stylesheets, Map<String, Integer> slots, String id, String marker) {
+            Integer slot = slots.get(id);
+            if (slot != null && slot < stylesheets.size() && stylesheets.get(slot).endsWith(marker)) {
+                return slot;
+            }
+
+            for (int i = 0; i < stylesheets.size(); i++) {
+                if (stylesheets.get(i).endsWith(marker)) {
+                    slots.put(id, i);
+                    return i;
+                }
+            }
+
+            slots.remove(id);
+            return -1;
+        }
+
+        // Returns null if the supplier produces no stylesheet for the value.
+        <T> @Nullable Encoded encode(Theme theme, T value, Function<T, @Nullable String> styleSupplier) {
+            if (this.theme != theme) {
+                this.theme = theme;
+                values.clear();
+            }
+
+            // a lambda class is shared by all its instances, so capturing suppliers hit the cache
+            // without retaining the captured state, while different lambdas never share stylesheets
+            var key = new CacheKey(styleSupplier.getClass(), value);
+            Encoded encoded = values.get(key);
+            if (encoded == null) {
+                String style = styleSupplier.apply(value);
+                if (style != null) {
+                    String css = style + "\n" + marker;
+                    encoded = new Encoded(css, Styles.encode(css));
+                } else {
+                    encoded = Encoded.NONE;
+                }
+                values.put(key, encoded);
+            }
+            return encoded != Encoded.NONE ? encoded : null;
+        }
+
+        record CacheKey(Class<?> supplierType, Object value) {
+        }
+
+        // Plain CSS stylesheet and its data URI.
+        record Encoded(String css, String uri) {
+
+            static final Encoded NONE = new Encoded("", "");
+        }
+    }
+
+    // Remembers the theme and option revisions applied to a scene root.
+    private static final class AppliedState {
+
+        private static final String PROPERTY_KEY = ThemeManager.class.getName() + ".applied";
+
+        private final Map<OptionValue<?>, Integer> revisions = new HashMap<>();
+        private @Nullable Theme theme;
+
+        static AppliedState on(Parent root) {
+            return (AppliedState) root.getProperties().computeIfAbsent(PROPERTY_KEY, _ -> new AppliedState());
+        }
+
+        boolean isApplied(OptionValue<?> option) {
+            Integer revision = revisions.get(option);
+            return revision != null && revision == option.revision();
+        }
+
+        void update(OptionValue<?> option, Theme theme) {
+            if (this.theme != theme) {
+                this.theme = theme;
+                revisions.clear();
+            }
+            revisions.put(option, option.revision());
+        }
+    }
+
+    // Combines all option stylesheets of a node into a single stylesheet.
+    private static final class MergedStylesheet {
+
+        private static final String PROPERTY_KEY = ThemeManager.class.getName() + ".merged";
+        private static final String MARKER = "/*options*/";
+
+        private final Map<String, String> fragments = new LinkedHashMap<>();
+        private boolean dirty = false;
+
+        static MergedStylesheet on(Parent node) {
+            return (MergedStylesheet) node.getProperties().computeIfAbsent(PROPERTY_KEY, _ -> new MergedStylesheet());
+        }
+
+        // Removes both per-option and merged stylesheets from the node.
+        static void clear(Parent node) {
+            node.getStylesheets().removeIf(css -> {
+                int i = css.lastIndexOf('\n');
+                return i >= 0 && css.startsWith("/*option", i + 1) && css.endsWith("*/");
+            });
+            node.getProperties().remove(PROPERTY_KEY);
+            node.getProperties().remove(StylesheetCache.SLOTS_KEY);
+        }
+
+        // Updates the option fragment, returns true if it has been changed.
+        boolean put(String id, @Nullable String css) {
+            String previous = css != null ? fragments.put(id, css) : fragments.remove(id);
+            boolean changed = !Objects.equals(previous, css);
+            dirty |= changed;
+            return changed;
+        }
+
+        // Rebuilds the combined stylesheet, returns true if the stylesheet list has been changed.
+        boolean apply(Parent node) {
+            if (!dirty) {
+                return false;
+            }
+            dirty = false;
+
+            var stylesheets = node.getStylesheets();
+            var slots = StylesheetCache.slots(node);
+            int index = StylesheetCache.indexOf(stylesheets, slots, MARKER, MARKER);
+
+            if (fragments.isEmpty()) {
+                if (index != -1) {
+                    stylesheets.remove(index);
+                    slots.remove(MARKER);
+                    return true;
+                }
+                return false;
+            }
+
+            String css = Styles.encode(String.join("\n", fragments.values()) + "\n" + MARKER);
+            if (index != -1) {
+                stylesheets.set(index, css);
+            } else {
+                stylesheets.add(css);
+                slots.put(MARKER, stylesheets.size() - 1);
             }
+            return true;
         }
     }
     //endregion
@@ -0,0 +1,119 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import javafx.scene.Node;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Describes a component stylesheet module, which is a part of a theme stylesheet that
+ * contains styles of a single component. Modules are produced by the {@link ThemeSplitter}
+ * and loaded on demand by the {@link ThemeManager}, see {@link ThemeManager#setLazyModules(boolean)}.
+ *
+ * <p>A rule belongs to the module if each of its selectors starts with one of the module
+ * style classes or a style class with the same prefix followed by a dash. For example,
+ * the "chart" style class matches both {@code .chart} and {@code .chart-legend} selectors.
+ * A module is loaded when a node with one of the trigger style classes is found in a scene.
+ *
+ * @param name         the module name, which is also the stylesheet file name
+ * @param styleClasses the style classes that belong to the module
+ * @param triggers     the style classes that trigger loading of the module
+ */
+public record ThemeModule(String name, Set<String> styleClasses, Set<String> triggers) {
+
+    /**
+     * Built-in component modules. The order matches the order of components in the theme
+     * stylesheets and must be preserved, because it defines the cascade order.
+     */
+    public static final List<ThemeModule> DEFAULTS = List.of(
+        of("accordion", "accordion"),
+        of("breadcrumbs", "breadcrumbs"),
+        of("card", "card"),
+        new ThemeModule("chart",
+            Set.of("chart", "bar-chart", "stacked-bar-chart", "default-color0", "default-color1",
+                "default-color2", "default-color3", "default-color4", "default-color5", "default-color6",
+                "default-color7", "area-legend-symbol", "bar-legend-symbol", "bubble-legend-symbol",
+                "pie-legend-symbol"),
+            Set.of("chart")
+        ),
+        of("color-picker", "color-picker", "color-palette", "color-palette-region", "custom-color-dialog"),
+        of("calendar", "calendar"),
+        of("html-editor", "html-editor"),
+        of("message", "message"),
+        new ThemeModule("modal-pane", Set.of("modal-pane", "modal-box"), Set.of("modal-pane", "modal-box")),
+        of("notification", "notification"),
+        of("pagination", "pagination"),
+        of("popover", "popover"),
+        of("segmented-control", "segmented-control"),
+        of("slider", "slider"),
+        of("spinner", "spinner"),
+        of("tab-line", "tab-line"),
+        of("tab-pane", "tab-pane"),
+        new ThemeModule("tile", Set.of("tile", "tile-base"), Set.of("tile", "tile-base")),
+        of("titled-pane", "titled-pane"),
+        of("toggle-switch", "toggle-switch")
+    );
+
+    public ThemeModule {
+        Objects.requireNonNull(name, "Name cannot be null!");
+        if (styleClasses.isEmpty() || triggers.isEmpty()) {
+            throw new IllegalArgumentException("Module '" + name + "' must define style classes and triggers");
+        }
+        styleClasses = Set.copyOf(styleClasses);
+        triggers = Set.copyOf(triggers);
+    }
+
+    /**
+     * Creates a module that is triggered by any of its style classes.
+     */
+    public static ThemeModule of(String name, String... styleClasses) {
+        return new ThemeModule(name, Set.of(styleClasses), Set.of(styleClasses));
+    }
+
+    /**
+     * Returns whether the node has any of the trigger style classes.
+     */
+    public boolean isUsedBy(Node node) {
+        for (String styleClass : node.getStyleClass()) {
+            if (triggers.contains(styleClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the selector starts with one of the module style classes.
+     */
+    public boolean owns(String selector) {
+        if (!selector.startsWith(".")) {
+            return false;
+        }
+
+        int end = 1;
+        while (end < selector.length()) {
+            char c = selector.charAt(end);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') {
+                break;
+            }
+            end++;
+        }
+
+        String styleClass = selector.substring(1, end);
+        if (styleClasses.contains(styleClass)) {
+            return true;
+        }
+
+        for (String prefix : styleClasses) {
+            if (styleClass.length() > prefix.length()
+                && styleClass.startsWith(prefix)
+                && styleClass.charAt(prefix.length()) == '-') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,101 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Contains built-in theme options. These options don't need to be registered in the
+ * {@link ThemeManager}, they are registered on the first change, so they can be changed right away.
+ *
+ * <pre>{@code
+ * ThemeManager.instance().setOption(ThemeOptions.EFFECTS, false);
+ * }</pre>
+ */
+public final class ThemeOptions {
+
+    private static final Logger LOGGER = System.getLogger(ThemeOptions.class.getName());
+
+    /**
+     * The suffix added to the file name of the theme variants compiled without effects.
+     *
+     * @see Theme#noEffects(Theme)
+     */
+    public static final String NO_EFFECTS_SUFFIX = "-no-effects";
+
+    /**
+     * Whether theme effects (drop shadows of popups, elevated surfaces, buttons, etc.)
+     * are enabled. Effects are expensive on the software rendering pipeline, so disabling
+     * them can noticeably reduce frame time. When disabled, popup shadows are removed and
+     * elevation shadows are replaced with plain borders.
+     *
+     * <p>The option adds a stylesheet to the scene root, so it also overrides effects set
+     * on the affected controls from code. The option has no effect on theme variants that
+     * were compiled without effects, see {@link Theme#noEffects(Theme)}. The default value
+     * is {@code true}.
+     */
+    public static final ThemeOption.Key<Boolean> EFFECTS = new ThemeOption.Key<>("atlantafx.effects", Boolean.class);
+
+    static final String NO_EFFECTS_STYLESHEET = "/atlantafx/base/theme/no-effects.css";
+
+    private static @Nullable String noEffectsCss;
+
+    private ThemeOptions() {
+        // Default constructor
+    }
+
+    /**
+     * Returns the option that toggles theme effects.
+     *
+     * @see #EFFECTS
+     */
+    public static ThemeOption<Boolean> effects() {
+        return ThemeOption.of(EFFECTS, true, change -> {
+            // theme variants compiled without effects don't need the stylesheet
+            boolean compiled = change.theme().getUserAgentStylesheet().contains(NO_EFFECTS_SUFFIX);
+            change.applyStylesheet(EFFECTS.id(), change.scene(), compiled ? _ -> null : ThemeOptions::getEffectsCss);
+        });
+    }
+
+    // Returns the built-in option with the specified key, or null if there's no such option.
+    @SuppressWarnings("unchecked")
+    static <T> @Nullable ThemeOption<T> builtIn(ThemeOption.Key<T> key) {
+        if (EFFECTS.equals(key)) {
+            return (ThemeOption<T>) effects();
+        }
+        return null;
+    }
+
+    // The stylesheet removes effects, so nothing is added when they are enabled.
+    private static @Nullable String getEffectsCss(Boolean enabled) {
+        return enabled ? null : getNoEffectsCss();
+    }
+
+    // Loads the compiled stylesheet once, it's the same for all themes.
+    private static String getNoEffectsCss() {
+        String css = noEffectsCss;
+        if (css != null) {
+            return css;
+        }
+
+        css = "";
+        try (InputStream in = ThemeOptions.class.getResourceAsStream(NO_EFFECTS_STYLESHEET)) {
+            if (in != null) {
+                css = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } else {
+                LOGGER.log(Level.WARNING, "Stylesheet not found: " + NO_EFFECTS_STYLESHEET);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to read stylesheet: " + NO_EFFECTS_STYLESHEET, e);
+        }
+
+        noEffectsCss = css;
+        return css;
+    }
+}
@@ -0,0 +1,174 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Indexes {@link Theme} service providers by name without instantiating them.
+ *
+ * <p>The theme name is the simple name of the provider class, e.g. {@code PrimerLight},
+ * and the lookup is case-insensitive. Only the theme that is actually requested is
+ * instantiated, and the instance is reused on subsequent lookups. Theme classes can
+ * be annotated with {@link ThemeInfo}, so that they can be selected by the dark mode
+ * flag without instantiation. Providers without the annotation are instantiated
+ * when the flag is queried for the first time.
+ *
+ * <pre>{@code
+ * var registry = ThemeRegistry.load();
+ * Theme theme = registry.find("NordDark");
+ * List<String> darkThemes = registry.getNames(true);
+ * }</pre>
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class ThemeRegistry {
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private ThemeRegistry(ServiceLoader<Theme> loader) {
+        for (var provider : loader.stream().toList()) {
+            var entry = new Entry(provider);
+            entries.putIfAbsent(entry.name.toLowerCase(Locale.ROOT), entry);
+        }
+    }
+
+    /**
+     * Creates a registry of the theme providers visible to the context class loader
+     * of the current thread, or to the {@link Theme} class loader if the former isn't set.
+     */
+    public static ThemeRegistry load() {
+        return load(Objects.requireNonNullElse(
+            Thread.currentThread().getContextClassLoader(),
+            Theme.class.getClassLoader()
+        ));
+    }
+
+    /**
+     * Creates a registry of the theme providers visible to the specified class loader.
+     *
+     * @param classLoader the class loader to be used to load provider configuration files
+     */
+    public static ThemeRegistry load(@Nullable ClassLoader classLoader) {
+        return new ThemeRegistry(ServiceLoader.load(Theme.class, classLoader));
+    }
+
+    /**
+     * Returns the names of all registered themes in the provider order.
+     */
+    public List<String> getNames() {
+        return entries.values().stream().map(entry -> entry.name).toList();
+    }
+
+    /**
+     * Returns the names of the registered themes with the specified color mode
+     * in the provider order.
+     *
+     * @param darkMode {@code true} for dark themes, {@code false} for light themes
+     */
+    public List<String> getNames(boolean darkMode) {
+        var names = new ArrayList<String>();
+        for (var entry : entries.values()) {
+            if (entry.isDarkMode() == darkMode) {
+                names.add(entry.name);
+            }
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Returns whether a theme with the specified name is registered.
+     *
+     * @param name the theme name, case-insensitive
+     */
+    public boolean contains(String name) {
+        return entries.containsKey(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the theme with the specified name, or null if there's no such theme.
+     * The theme is instantiated on the first call.
+     *
+     * @param name the theme name, case-insensitive
+     */
+    public @Nullable Theme find(String name) {
+        var entry = entries.get(name.trim().toLowerCase(Locale.ROOT));
+        return entry != null ? entry.get() : null;
+    }
+
+    /**
+     * Returns the first registered theme with the specified color mode,
+     * or null if there's no such theme.
+     *
+     * @param darkMode {@code true} for a dark theme, {@code false} for a light theme
+     */
+    public @Nullable Theme findFirst(boolean darkMode) {
+        for (var entry : entries.values()) {
+            if (entry.isDarkMode() == darkMode) {
+                return entry.get();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the names of already instantiated themes.
+     */
+    public Set<String> getInstantiated() {
+        var names = new LinkedHashSet<String>();
+        for (var entry : entries.values()) {
+            if (entry.instance != null) {
+                names.add(entry.name);
+            }
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    //*************************************************************************
+
+    private static final class Entry {
+
+        private final String name;
+        private final ServiceLoader.Provider<Theme> provider;
+        private @Nullable Boolean darkMode;
+        private @Nullable Theme instance;
+
+        private Entry(ServiceLoader.Provider<Theme> provider) {
+            Class<? extends Theme> type = provider.type();
+            @Nullable ThemeInfo info = type.getAnnotation(ThemeInfo.class);
+
+            this.name = type.getSimpleName();
+            this.provider = provider;
+            this.darkMode = info != null ? info.darkMode() : null;
+        }
+
+        private boolean isDarkMode() {
+            var value = darkMode;
+            if (value == null) {
+                value = get().isDarkMode();
+                darkMode = value;
+            }
+            return value;
+        }
+
+        private Theme get() {
+            var theme = instance;
+            if (theme == null) {
+                theme = provider.get();
+                instance = theme;
+            }
+            return theme;
+        }
+    }
+}
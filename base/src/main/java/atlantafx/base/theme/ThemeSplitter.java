@@ -0,0 +1,210 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Splits a compiled theme stylesheet into a core stylesheet and per-component module
+ * stylesheets, which can be loaded on demand, see {@link ThemeManager#setLazyModules(boolean)}.
+ *
+ * <p>A rule is moved to a module if all its selectors are owned by that module, see
+ * {@link ThemeModule#owns(String)}. All other rules, including the {@code .root} rule
+ * and at-rules, stay in the core stylesheet. The output is written to the directory
+ * named after the theme stylesheet, e.g. for {@code primer-light.css}:
+ *
+ * <pre>{@code
+ * primer-light/core.css
+ * primer-light/chart.css
+ * primer-light/tab-pane.css
+ * ...
+ * }</pre>
+ *
+ * <p>Every run of consecutive source rules that goes to the same stylesheet is preceded
+ * by an order marker ({@value #ORDER_MARKER}), which contains the index of its first rule.
+ * Markers allow restoring the source rule order when the core stylesheet is combined with
+ * modules, because a core rule can override a preceding module rule of the same specificity.
+ *
+ * <p>Usage:
+ * <pre>{@code
+ * java ThemeSplitter <path>
+ * }</pre>
+ */
+public class ThemeSplitter {
+
+    /**
+     * The file name of the core stylesheet.
+     */
+    public static final String CORE = "core";
+
+    /**
+     * The start of the comment that marks the source index of the following rules.
+     */
+    public static final String ORDER_MARKER = "/*@";
+
+    private final List<ThemeModule> modules;
+
+    /**
+     * Creates a splitter that uses {@link ThemeModule#DEFAULTS} modules.
+     */
+    public ThemeSplitter() {
+        this(ThemeModule.DEFAULTS);
+    }
+
+    /**
+     * Creates a splitter that uses the specified modules.
+     *
+     * @param modules The component modules in the cascade order.
+     */
+    public ThemeSplitter(List<ThemeModule> modules) {
+        this.modules = List.copyOf(modules);
+    }
+
+    /**
+     * The main class that accepts the path to the directory to be scanned for theme
+     * stylesheets. Only the base theme stylesheets that define the {@code .root} rule are split,
+     * theme variants are skipped. Selector counts are printed to the standard output.
+     *
+     * @see #split(Path)
+     */
+    public static void main(String[] args) {
+        try {
+            if (args.length != 1) {
+                throw new IllegalArgumentException("You must provide the source directory path");
+            }
+
+            var dir = Paths.get(args[0]);
+            if (!Files.isDirectory(dir)) {
+                throw new IllegalArgumentException("Invalid directory: " + dir);
+            }
+
+            var splitter = new ThemeSplitter();
+            try (Stream<Path> stream = Files.list(dir)) {
+                for (Path f : stream.filter(ThemeFlattener::isBaseStylesheet).sorted().toList()) {
+                    var result = splitter.split(f);
+                    if (result != null) {
+                        System.out.println(f.getFileName() + ": " + result);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Splits the specified theme stylesheet and writes the result to the directory
+     * named after the stylesheet.
+     *
+     * @param in The theme stylesheet path.
+     * @return The split result, or null if the file is not a theme stylesheet.
+     * @throws IOException to punish you for using Java
+     */
+    public @Nullable Result split(@Nullable Path in) throws IOException {
+        if (in == null || !Files.isRegularFile(in)) {
+            throw new IllegalArgumentException("Invalid file: " + in);
+        }
+
+        String name = in.getFileName().toString();
+        var result = split(Files.readString(in, StandardCharsets.UTF_8));
+        if (result == null) {
+            return null;
+        }
+
+        Path out = Files.createDirectories(in.resolveSibling(name.substring(0, name.lastIndexOf('.'))));
+        for (var entry : result.stylesheets().entrySet()) {
+            Files.writeString(out.resolve(entry.getKey() + ".css"), entry.getValue(), StandardCharsets.UTF_8);
+        }
+
+        return result;
+    }
+
+    /**
+     * Splits the specified theme stylesheet text.
+     *
+     * @param css The CSS text.
+     * @return The split result, or null if the text doesn't contain the {@code .root} rule.
+     */
+    public @Nullable Result split(String css) {
+        List<CssRules.Rule> rules = CssRules.parse(css);
+        if (rules.stream().noneMatch(rule -> ".root".equals(rule.selector()))) {
+            return null;
+        }
+
+        var core = new StringBuilder();
+        var builders = new LinkedHashMap<String, StringBuilder>();
+        var selectors = new LinkedHashMap<String, Integer>();
+        builders.put(CORE, core);
+        selectors.put(CORE, 0);
+
+        int total = 0;
+        String previous = null;
+        for (int i = 0; i < rules.size(); i++) {
+            var rule = rules.get(i);
+            List<String> ruleSelectors = rule.selectors();
+            String target = findModule(ruleSelectors);
+
+            var sb = builders.computeIfAbsent(target, _ -> new StringBuilder());
+            if (!target.equals(previous)) {
+                sb.append(ORDER_MARKER).append(i).append("*/\n");
+                previous = target;
+            }
+            CssRules.write(sb, rule, v -> v);
+            selectors.merge(target, ruleSelectors.size(), Integer::sum);
+            total += ruleSelectors.size();
+        }
+
+        // sort modules in the cascade order
+        var stylesheets = new LinkedHashMap<String, String>();
+        var counts = new LinkedHashMap<String, Integer>();
+        stylesheets.put(CORE, core.toString());
+        counts.put(CORE, selectors.getOrDefault(CORE, 0));
+        for (var module : modules) {
+            var sb = builders.get(module.name());
+            if (sb != null) {
+                stylesheets.put(module.name(), sb.toString());
+                counts.put(module.name(), selectors.getOrDefault(module.name(), 0));
+            }
+        }
+
+        return new Result(stylesheets, counts, total);
+    }
+
+    private String findModule(List<String> selectors) {
+        if (selectors.isEmpty()) {
+            return CORE;
+        }
+
+        for (var module : modules) {
+            if (selectors.stream().allMatch(module::owns)) {
+                return module.name();
+            }
+        }
+        return CORE;
+    }
+
+    /**
+     * The result of splitting a theme stylesheet.
+     *
+     * @param stylesheets The stylesheets by module name, starting with the core stylesheet.
+     * @param selectors   The selector count by module name.
+     * @param total       The total selector count of the source stylesheet.
+     */
+    public record Result(Map<String, String> stylesheets, Map<String, Integer> selectors, int total) {
+
+        @Override
+        public String toString() {
+            return "selectors total=" + total + ", core=" + selectors.get(CORE) + ", modules=" + selectors;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.util;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.value.WritableValue;
+import javafx.scene.Node;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Keeps track of the animations played on nodes, so that every node has at most
+ * one active animation per animated property.
+ *
+ * <p>Animations are registered under a key, which is usually the factory method
+ * used to create them. An animation is created on the first request only and then
+ * cached in the node properties, so repeated requests restart the same instance
+ * instead of allocating a new one. Playing an animation cancels all other active
+ * animations of the same node that target any of its properties.
+ *
+ * <pre>{@code
+ * var registry = new AnimationRegistry();
+ * // repeated calls restart the same timeline
+ * registry.play(field, "flash", Animations::flash);
+ * // cancels the running "flash" animation because both animate the opacity
+ * registry.play(field, "fadeOut", node -> Animations.fadeOut(node, Duration.millis(200)));
+ * }</pre>
+ *
+ * <p>Animated properties are discovered from the {@link Timeline} key frames,
+ * other animation types only conflict with the animations under the same key.
+ * When an animation is canceled, the properties it targets are restored to the
+ * values they had before it was started. An animation that finishes on its own
+ * keeps the end values.
+ *
+ * <p>This class is not thread-safe and must only be used from the
+ * JavaFX Application Thread.
+ */
+public final class AnimationRegistry {
+
+    private final Set<Entry> active = new LinkedHashSet<>();
+    private final ReadOnlyIntegerWrapper activeCount = new ReadOnlyIntegerWrapper(this, "activeCount");
+
+    /**
+     * Creates a new registry.
+     */
+    public AnimationRegistry() {
+        // default constructor
+    }
+
+    /**
+     * Plays the animation registered under the specified key for the specified node
+     * from the start. If there's no such animation, it's created with the specified
+     * factory first. If the animation is already running, it's restarted.
+     *
+     * @param node    the node to be animated
+     * @param key     the animation key, e.g. the name of a factory method
+     * @param factory the animation factory
+     * @return the animation being played
+     */
+    public Animation play(Node node, Object key, Function<Node, ? extends Animation> factory) {
+        Objects.requireNonNull(node, "Node cannot be null!");
+        Objects.requireNonNull(key, "Key cannot be null!");
+        Objects.requireNonNull(factory, "Factory cannot be null!");
+
+        var entries = getOrCreateEntries(node);
+        var entry = find(entries, key);
+        if (entry == null) {
+            var animation = Objects.requireNonNull(factory.apply(node), "Animation cannot be null!");
+            entry = new Entry(node, key, animation);
+            entries.add(entry);
+        }
+
+        // keep the initial values, a running animation is just restarted
+        boolean restart = entry.active;
+        if (restart) {
+            deactivate(entry);
+            entry.animation.stop();
+        }
+
+        for (var other : List.copyOf(entries)) {
+            if (other != entry && other.active && other.conflictsWith(entry)) {
+                cancel(other);
+            }
+        }
+
+        if (!restart) {
+            entry.saveState();
+        }
+        activate(entry);
+        entry.animation.playFromStart();
+
+        return entry.animation;
+    }
+
+    /**
+     * Cancels the animation registered under the specified key for the specified node
+     * and restores the node properties it targets.
+     *
+     * @param node the animated node
+     * @param key  the animation key
+     * @return {@code true} if the animation was active, {@code false} otherwise
+     */
+    public boolean cancel(Node node, Object key) {
+        Objects.requireNonNull(node, "Node cannot be null!");
+        Objects.requireNonNull(key, "Key cannot be null!");
+
+        var entries = getEntries(node);
+        var entry = entries != null ? find(entries, key) : null;
+        if (entry == null || !entry.active) {
+            return false;
+        }
+
+        cancel(entry);
+        return true;
+    }
+
+    /**
+     * Cancels all active animations of the specified node.
+     *
+     * @param node the animated node
+     */
+    public void cancelAll(Node node) {
+        Objects.requireNonNull(node, "Node cannot be null!");
+
+        var entries = getEntries(node);
+        if (entries != null) {
+            for (var entry : List.copyOf(entries)) {
+                if (entry.active) {
+                    cancel(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels all active animations known to this registry.
+     */
+    public void cancelAll() {
+        for (var entry : List.copyOf(active)) {
+            cancel(entry);
+        }
+    }
+
+    /**
+     * Cancels all active animations of the specified node and removes
+     * the cached animation instances.
+     *
+     * @param node the animated node
+     */
+    public void release(Node node) {
+        cancelAll(node);
+        node.getProperties().remove(this);
+    }
+
+    /**
+     * Checks whether the animation registered under the specified key
+     * is playing or paused.
+     *
+     * @param node the animated node
+     * @param key  the animation key
+     */
+    public boolean isActive(Node node, Object key) {
+        var entries = getEntries(node);
+        var entry = entries != null ? find(entries, key) : null;
+        return entry != null && entry.active;
+    }
+
+    /**
+     * The number of active animations, i.e. the animations that were started
+     * and have neither finished nor been canceled.
+     */
+    public ReadOnlyIntegerProperty activeCountProperty() {
+        return activeCount.getReadOnlyProperty();
+    }
+
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    //*************************************************************************
+
+    @SuppressWarnings("unchecked")
+    private @Nullable List<Entry> getEntries(Node node) {
+        // cached in the node properties to be collected along with the node
+        return (List<Entry>) node.getProperties().get(this);
+    }
+
+    private List<Entry> getOrCreateEntries(Node node) {
+        var entries = getEntries(node);
+        if (entries == null) {
+            entries = new ArrayList<>(2);
+            node.getProperties().put(this, entries);
+        }
+        return entries;
+    }
+
+    private static @Nullable Entry find(List<Entry> entries, Object key) {
+        for (var entry : entries) {
+            if (entry.key.equals(key)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WritableValue<Object>[] findTargets(Animation animation) {
+        if (!(animation instanceof Timeline timeline)) {
+            return new WritableValue[0];
+        }
+
+        var targets = new ArrayList<WritableValue<?>>();
+        for (KeyFrame keyFrame : timeline.getKeyFrames()) {
+            for (KeyValue keyValue : keyFrame.getValues()) {
+                if (!targets.contains(keyValue.getTarget())) {
+                    targets.add(keyValue.getTarget());
+                }
+            }
+        }
+        return targets.toArray(new WritableValue[0]);
+    }
+
+    private void cancel(Entry entry) {
+        deactivate(entry);
+        entry.animation.stop();
+        entry.restoreState();
+    }
+
+    private void activate(Entry entry) {
+        entry.active = true;
+        active.add(entry);
+        activeCount.set(active.size());
+    }
+
+    private void deactivate(Entry entry) {
+        entry.active = false;
+        active.remove(entry);
+        activeCount.set(active.size());
+    }
+
+    private final class Entry {
+
+        private final Node node;
+        private final Object key;
+        private final Animation animation;
+        private final WritableValue<Object>[] targets;
+        private final @Nullable Object[] savedValues;
+        private boolean active;
+
+        private Entry(Node node, Object key, Animation animation) {
+            this.node = node;
+            this.key = key;
+            this.animation = animation;
+            this.targets = findTargets(animation);
+            this.savedValues = new Object[targets.length];
+
+            animation.statusProperty().addListener((_, _, val) -> {
+                if (val == Animation.Status.STOPPED && active) {
+                    deactivate(this);
+                }
+            });
+        }
+
+        private boolean conflictsWith(Entry other) {
+            if (node != other.node) {
+                return false;
+            }
+            for (var target : targets) {
+                for (var otherTarget : other.targets) {
+                    if (target == otherTarget) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void saveState() {
+            for (int i = 0; i < targets.length; i++) {
+                savedValues[i] = targets[i].getValue();
+            }
+        }
+
+        private void restoreState() {
+            for (int i = 0; i < targets.length; i++) {
+                targets[i].setValue(savedValues[i]);
+            }
+        }
+    }
+}
@@ -11,6 +11,8 @@
 
 package atlantafx.base.util;
 
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Objects;
 import javafx.animation.Animation;
 import javafx.animation.Interpolator;
@@ -24,6 +26,10 @@ import javafx.util.Duration;
 /**
  * A utility class that provides factory methods to create a predefined
  * animations for various effects, such as fade, slide, rotate, scale etc.
+ *
+ * <p>Every call creates a new animation. Use {@link AnimationRegistry} to reuse
+ * animations and to prevent several animations from changing the same node
+ * properties at once.
  */
 public final class Animations {
 
@@ -1386,4 +1392,58 @@ public final class Animations {
 
         return t;
     }
+
+    //*************************************************************************
+    //  STAGGER                                                              //
+    //*************************************************************************
+
+    /**
+     * Animates the nodes one after another with the specified effect, using
+     * a single animation for the whole group. See {@link StaggerTransition}.
+     *
+     * @param nodes    The nodes to be animated in the order they start.
+     * @param duration The animation duration of a single node.
+     * @param delay    The delay between the start of the two subsequent nodes.
+     * @param effect   The effect to apply.
+     */
+    public static StaggerTransition stagger(List<? extends Node> nodes,
+                                            Duration duration,
+                                            Duration delay,
+                                            StaggerTransition.Effect effect) {
+        return new StaggerTransition(nodes, duration, delay, effect);
+    }
+
+    /**
+     * Applies the {@link #fadeIn(Node, Duration)} effect to the nodes one after another.
+     *
+     * @param nodes    The nodes to be animated in the order they start.
+     * @param duration The animation duration of a single node.
+     * @param delay    The delay between the start of the two subsequent nodes.
+     */
+    public static StaggerTransition staggerFadeIn(List<? extends Node> nodes, Duration duration, Duration delay) {
+        return new StaggerTransition(nodes, duration, delay, Node::setOpacity);
+    }
+
+    /**
+     * Applies the {@link #fadeInUp(Node, Duration)} effect to the nodes one after another.
+     *
+     * @param nodes    The nodes to be animated in the order they start.
+     * @param duration The animation duration of a single node.
+     * @param delay    The delay between the start of the two subsequent nodes.
+     */
+    public static StaggerTransition staggerFadeInUp(List<? extends Node> nodes, Duration duration, Duration delay) {
+        Objects.requireNonNull(nodes, "Nodes cannot be null!");
+
+        // same as fadeInUp(), the offset is measured once when the animation is created
+        var heights = new IdentityHashMap<Node, Double>(nodes.size());
+        for (var node : nodes) {
+            Objects.requireNonNull(node, "Node cannot be null!");
+            heights.put(node, node.getBoundsInParent().getHeight());
+        }
+
+        return new StaggerTransition(nodes, duration, delay, (node, progress) -> {
+            node.setOpacity(progress);
+            node.setTranslateY((1 - progress) * heights.get(node));
+        });
+    }
 }
@@ -6,9 +6,7 @@ import javafx.beans.value.ObservableValue;
 import javafx.scene.paint.Color;
 import org.jspecify.annotations.Nullable;
 
-import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Pattern;
 
 /**
@@ -42,10 +40,8 @@ public class Colour implements ObservableValue<Colour> {
     // internal color representation (0xRRRRGGGGBBBBAAAA format, 16 bits per channel)
     protected long rgba;
 
-    // observable
-    private @Nullable Colour oldState = null;
-    private @Nullable List<InvalidationListener> invalidationListeners = null;
-    private @Nullable List<ChangeListener<? super Colour>> changeListeners = null;
+    // observable, see ColourListeners
+    private @Nullable ColourListeners listeners = null;
 
     /**
      * Creates a color using a packed raw value.
@@ -350,6 +346,28 @@ public class Colour implements ObservableValue<Colour> {
             fireValueChanged(prev);
         }
     }
+
+    /**
+     * Returns the packed raw value of this color. See {@link ColourOps}.
+     *
+     * @return 64-bit integer containing RGBA channels
+     */
+    public long getRGBA() {
+        return rgba;
+    }
+
+    /**
+     * Sets the packed raw value of this color. See {@link ColourOps}.
+     *
+     * @param rgba 64-bit integer containing RGBA channels
+     */
+    public void setRGBA(long rgba) {
+        if (this.rgba != rgba) {
+            long prev = this.rgba;
+            this.rgba = rgba;
+            fireValueChanged(prev);
+        }
+    }
     //endregion
 
     //region UTILS
@@ -390,11 +408,7 @@ public class Colour implements ObservableValue<Colour> {
      * @return relative luminance value from 0.0 (darkest black) to 1.0 (lightest white)
      */
     public double getLuminance() {
-        double r = convertChannelToLinear(getRed());
-        double g = convertChannelToLinear(getGreen());
-        double b = convertChannelToLinear(getBlue());
-
-        return (0.2126 * r) + (0.7152 * g) + (0.0722 * b);
+        return ColourOps.luminance(rgba);
     }
 
     /**
@@ -418,68 +432,20 @@ public class Colour implements ObservableValue<Colour> {
 
     /**
      * Creates a color by parsing a string specification.
-     * Supported formats include hex, RGB, and HSL strings.
+     * Supported formats include hex, RGB, and HSL strings, as well as
+     * <a href="https://www.w3.org/TR/css-color-4/#named-colors">CSS named colors</a>.
+     * The specification is case-insensitive, and leading or trailing whitespace is ignored.
+     *
+     * <p>Parsing doesn't create any intermediate objects. Use {@link ColourCache} to avoid
+     * parsing the same specification repeatedly, or {@link ColourOps#parse(String)} to
+     * obtain the packed value only.
      *
      * @param color   text representation of a color
      * @param opacity opacity scaling factor from 0.0 to 1.0
      * @throws IllegalArgumentException if the text format is invalid
      */
     public static Colour of(String color, double opacity) {
-        if (color.isEmpty()) {
-            throw new IllegalArgumentException("Color string cannot be empty.");
-        }
-
-        color = color.toLowerCase(Locale.ROOT);
-
-        if (color.startsWith("#")) {
-            color = color.substring(1);
-        } else if (color.startsWith("0x")) {
-            color = color.substring(2);
-        } else if (color.startsWith("rgb")) {
-            if (color.startsWith("(", 3)) {
-                return parseRGB(color, 4, false, opacity);
-            } else if (color.startsWith("a(", 3)) {
-                return parseRGB(color, 5, true, opacity);
-            }
-        } else if (color.startsWith("hsl")) {
-            if (color.startsWith("(", 3)) {
-                return parseHSB(color, 4, false, opacity);
-            } else if (color.startsWith("a(", 3)) {
-                return parseHSB(color, 5, true, opacity);
-            }
-        }
-
-        int len = color.length();
-        try {
-            int r, g, b, a;
-            if (len == 3) {
-                r = Integer.parseInt(color.substring(0, 1), 16);
-                g = Integer.parseInt(color.substring(1, 2), 16);
-                b = Integer.parseInt(color.substring(2, 3), 16);
-                return Colour.rgb(r / 15.0, g / 15.0, b / 15.0, opacity);
-            } else if (len == 4) {
-                r = Integer.parseInt(color.substring(0, 1), 16);
-                g = Integer.parseInt(color.substring(1, 2), 16);
-                b = Integer.parseInt(color.substring(2, 3), 16);
-                a = Integer.parseInt(color.substring(3, 4), 16);
-                return Colour.rgb(r / 15.0, g / 15.0, b / 15.0, opacity * a / 15.0);
-            } else if (len == 6) {
-                r = Integer.parseInt(color.substring(0, 2), 16);
-                g = Integer.parseInt(color.substring(2, 4), 16);
-                b = Integer.parseInt(color.substring(4, 6), 16);
-                return Colour.rgb(r, g, b, opacity);
-            } else if (len == 8) {
-                r = Integer.parseInt(color.substring(0, 2), 16);
-                g = Integer.parseInt(color.substring(2, 4), 16);
-                b = Integer.parseInt(color.substring(4, 6), 16);
-                a = Integer.parseInt(color.substring(6, 8), 16);
-                return Colour.rgb(r, g, b, opacity * a / 255.0);
-            }
-        } catch (NumberFormatException _) {
-            // ignored
-        }
-
-        throw new IllegalArgumentException("Invalid color specification");
+        return new Colour(parse(color, opacity));
     }
 
     /** See {@link #of(String, double)}. */
@@ -580,6 +546,50 @@ public class Colour implements ObservableValue<Colour> {
         return hsl(hsl.hue(), hsl.saturation(), hsl.lightness(), hsl.opacity());
     }
 
+    /** See {@link #oklab(double, double, double, double)}. */
+    public static Colour oklab(double lightness, double a, double b) {
+        return oklab(lightness, a, b, 1.0);
+    }
+
+    /**
+     * Creates a color using OKLab values. Colors outside the sRGB gamut are clipped.
+     *
+     * @param lightness perceived lightness from 0.0 to 1.0
+     * @param a         green-red axis value from -0.5 to 0.5
+     * @param b         blue-yellow axis value from -0.5 to 0.5
+     * @param opacity   opacity value from 0.0 to 1.0
+     */
+    public static Colour oklab(double lightness, double a, double b, double opacity) {
+        return new OKLab(lightness, a, b, opacity).toColour();
+    }
+
+    /** See {@link #oklab(double, double, double, double)}. */
+    public static Colour oklab(OKLab oklab) {
+        return oklab(oklab.lightness(), oklab.a(), oklab.b(), oklab.opacity());
+    }
+
+    /** See {@link #oklch(double, double, double, double)}. */
+    public static Colour oklch(double lightness, double chroma, double hue) {
+        return oklch(lightness, chroma, hue, 1.0);
+    }
+
+    /**
+     * Creates a color using OKLCH values. Colors outside the sRGB gamut are clipped.
+     *
+     * @param lightness perceived lightness from 0.0 to 1.0
+     * @param chroma    chroma value from 0.0 to 0.5
+     * @param hue       angle in degrees from 0.0 to 360.0
+     * @param opacity   opacity value from 0.0 to 1.0
+     */
+    public static Colour oklch(double lightness, double chroma, double hue, double opacity) {
+        return new OKLCH(lightness, chroma, hue, opacity).toColour();
+    }
+
+    /** See {@link #oklch(double, double, double, double)}. */
+    public static Colour oklch(OKLCH oklch) {
+        return oklch(oklch.lightness(), oklch.chroma(), oklch.hue(), oklch.opacity());
+    }
+
     /**
      * Creates a color instance from a JavaFX {@link Color} object.
      *
@@ -603,23 +613,7 @@ public class Colour implements ObservableValue<Colour> {
      */
     public Colour derive(double hueShift, double saturationFactor,
                          double brightnessFactor, double opacityFactor) {
-        HSB hsb = HSB.fromRGB(getRed(), getGreen(), getBlue());
-
-        double b = hsb.brightness();
-        if (b == 0 && brightnessFactor > 1.0) {
-            b = 0.05;
-        }
-
-        double h = (((hsb.hue() + hueShift) % 360.0) + 360.0) % 360.0;
-        double s = Math.clamp(hsb.saturation() * saturationFactor, 0.0, 1.0);
-        b = Math.clamp(b * brightnessFactor, 0.0, 1.0);
-        double a = Math.clamp(getOpacity() * opacityFactor, 0.0, 1.0);
-
-        h = Math.round(h * 1e4) / 1e4;
-        s = Math.round(s * 1e4) / 1e4;
-        b = Math.round(b * 1e4) / 1e4;
-
-        return hsb(h, s, b, a);
+        return new Colour(ColourOps.derive(rgba, hueShift, saturationFactor, brightnessFactor, opacityFactor));
     }
 
     /**
@@ -695,17 +689,29 @@ public class Colour implements ObservableValue<Colour> {
             return endValue;
         }
 
-        double ir = getRed();
-        double ig = getGreen();
-        double ib = getBlue();
-        double io = getOpacity();
+        return new Colour(ColourOps.interpolate(rgba, endValue.rgba, t));
+    }
 
-        double r = Math.round((ir + (endValue.getRed() - ir) * t) * 1e10) / 1e10;
-        double g = Math.round((ig + (endValue.getGreen() - ig) * t) * 1e10) / 1e10;
-        double b = Math.round((ib + (endValue.getBlue() - ib) * t) * 1e10) / 1e10;
-        double a = Math.round((io + (endValue.getOpacity() - io) * t) * 1e10) / 1e10;
+    /**
+     * Performs perceptual interpolation between this color and a target color
+     * in the OKLab color space.
+     *
+     * <p>Unlike {@link #interpolate(Colour, double)}, intermediate colors change
+     * lightness evenly and don't turn grayish between complementary colors,
+     * which makes it a better fit for gradients and color transitions.
+     *
+     * @param endValue target color value
+     * @param t        progress ratio from 0.0 to 1.0
+     */
+    public Colour interpolateOKLab(Colour endValue, double t) {
+        if (t == 0.0 || equals(endValue)) {
+            return this;
+        }
+        if (t == 1.0) {
+            return endValue;
+        }
 
-        return new Colour(Math.clamp(r, 0, 1), Math.clamp(g, 0, 1), Math.clamp(b, 0, 1), Math.clamp(a, 0, 1));
+        return new Colour(ColourOps.interpolateOKLab(rgba, endValue.rgba, t));
     }
 
     /**
@@ -730,16 +736,11 @@ public class Colour implements ObservableValue<Colour> {
      * @param background opaque color underneath
      */
     public Colour flatten(Colour background) {
-        double opacity = getOpacity();
-        if (opacity >= 1.0) {
+        if (isOpaque()) {
             return this;
         }
 
-        double r = opacity * getRed() + (1.0 - opacity) * background.getRed();
-        double g = opacity * getGreen() + (1.0 - opacity) * background.getGreen();
-        double b = opacity * getBlue() + (1.0 - opacity) * background.getBlue();
-
-        return new Colour(Math.clamp(r, 0.0, 1.0), Math.clamp(g, 0.0, 1.0), Math.clamp(b, 0.0, 1.0), 1.0);
+        return new Colour(ColourOps.flatten(rgba, background.rgba));
     }
 
     /**
@@ -836,6 +837,22 @@ public class Colour implements ObservableValue<Colour> {
         return HSL.fromRGB(getRed(), getGreen(), getBlue(), getOpacity());
     }
 
+    /**
+     * Converts this color to OKLab model representation.
+     */
+    public OKLab toOKLab() {
+        var lab = ColourOps.toOKLab(rgba, new double[4]);
+        return new OKLab(Math.clamp(lab[0], 0.0, 1.0), lab[1], lab[2], lab[3]);
+    }
+
+    /**
+     * Converts this color to OKLCH model representation.
+     */
+    public OKLCH toOKLCH() {
+        var lch = ColourOps.toOKLCH(rgba, new double[4]);
+        return new OKLCH(Math.clamp(lch[0], 0.0, 1.0), lch[1], lch[2], lch[3]);
+    }
+
     /**
      * Converts this color to a JavaFX color object.
      */
@@ -913,7 +930,90 @@ public class Colour implements ObservableValue<Colour> {
         return val;
     }
 
-    protected static Colour parseRGB(String color, int roff, boolean hasAlpha, double a) {
+    protected static long parse(String color, double opacity) {
+        int off = 0;
+        int end = color.length();
+        while (off < end && color.charAt(off) <= ' ') {
+            off++;
+        }
+        while (end > off && color.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        if (off == end) {
+            throw new IllegalArgumentException("Color string cannot be empty.");
+        }
+
+        if (color.charAt(off) == '#') {
+            return parseHex(color, off + 1, end, opacity);
+        } else if (color.regionMatches(true, off, "0x", 0, 2)) {
+            return parseHex(color, off + 2, end, opacity);
+        } else if (color.regionMatches(true, off, "rgb(", 0, 4)) {
+            return parseRGB(color, off + 4, false, opacity);
+        } else if (color.regionMatches(true, off, "rgba(", 0, 5)) {
+            return parseRGB(color, off + 5, true, opacity);
+        } else if (color.regionMatches(true, off, "hsl(", 0, 4)) {
+            return parseHSB(color, off + 4, false, opacity);
+        } else if (color.regionMatches(true, off, "hsla(", 0, 5)) {
+            return parseHSB(color, off + 5, true, opacity);
+        }
+
+        long named = ColourNames.find(color, off, end);
+        if (named >= 0) {
+            return pack16(
+                ((named >>> 24) & 0xFF) / 255.0,
+                ((named >>> 16) & 0xFF) / 255.0,
+                ((named >>> 8) & 0xFF) / 255.0,
+                opacity * (named & 0xFF) / 255.0
+            );
+        }
+
+        return parseHex(color, off, end, opacity);
+    }
+
+    protected static long parseHex(String color, int off, int end, double opacity) {
+        int r, g, b, a;
+        switch (end - off) {
+            case 3 -> {
+                r = hexDigit(color.charAt(off));
+                g = hexDigit(color.charAt(off + 1));
+                b = hexDigit(color.charAt(off + 2));
+                if ((r | g | b) >= 0) {
+                    return pack16(r / 15.0, g / 15.0, b / 15.0, opacity);
+                }
+            }
+            case 4 -> {
+                r = hexDigit(color.charAt(off));
+                g = hexDigit(color.charAt(off + 1));
+                b = hexDigit(color.charAt(off + 2));
+                a = hexDigit(color.charAt(off + 3));
+                if ((r | g | b | a) >= 0) {
+                    return pack16(r / 15.0, g / 15.0, b / 15.0, opacity * a / 15.0);
+                }
+            }
+            case 6 -> {
+                r = hexByte(color, off);
+                g = hexByte(color, off + 2);
+                b = hexByte(color, off + 4);
+                if ((r | g | b) >= 0) {
+                    return pack16(r / 255.0, g / 255.0, b / 255.0, opacity);
+                }
+            }
+            case 8 -> {
+                r = hexByte(color, off);
+                g = hexByte(color, off + 2);
+                b = hexByte(color, off + 4);
+                a = hexByte(color, off + 6);
+                if ((r | g | b | a) >= 0) {
+                    return pack16(r / 255.0, g / 255.0, b / 255.0, opacity * a / 255.0);
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid color specification");
+    }
+
+    protected static long parseRGB(String color, int roff, boolean hasAlpha, double a) {
         int rend = color.indexOf(',', roff);
         int gend = rend < 0 ? -1 : color.indexOf(',', rend + 1);
         int bend = gend < 0 ? -1 : color.indexOf(hasAlpha ? ',' : ')', gend + 1);
@@ -934,10 +1034,10 @@ public class Colour implements ObservableValue<Colour> {
             a *= parseComponent(color, bend + 1, aend, PARSE_ALPHA);
         }
 
-        return new Colour(r, g, b, a);
+        return pack16(r, g, b, a);
     }
 
-    protected static Colour parseHSB(String color, int hoff, boolean hasAlpha, double a) {
+    protected static long parseHSB(String color, int hoff, boolean hasAlpha, double a) {
         int hend = color.indexOf(',', hoff);
         int send = hend < 0 ? -1 : color.indexOf(',', hend + 1);
         int bend = send < 0 ? -1 : color.indexOf(hasAlpha ? ',' : ')', send + 1);
@@ -958,41 +1058,140 @@ public class Colour implements ObservableValue<Colour> {
             a *= parseComponent(color, bend + 1, aend, PARSE_ALPHA);
         }
 
-        return Colour.hsb(h, s, b, a);
+        return ColourOps.fromHSB(h, s, b, checkDouble("Opacity", a));
     }
 
     protected static double parseComponent(String color, int off, int end, int type) {
-        String rawComponent = color.substring(off, end).trim();
-        String value = rawComponent;
+        while (off < end && color.charAt(off) <= ' ') {
+            off++;
+        }
+        while (end > off && color.charAt(end - 1) <= ' ') {
+            end--;
+        }
 
-        if (value.endsWith("%")) {
+        int valueEnd = end;
+        if (valueEnd > off && color.charAt(valueEnd - 1) == '%') {
             if (type > PARSE_PERCENT) {
                 throw new IllegalArgumentException(String.format(
-                    "Unexpected percentage sign '%%' in component '%s'", rawComponent
+                    "Unexpected percentage sign '%%' in component '%s'", color.substring(off, end)
                 ));
             }
             type = PARSE_PERCENT;
-            value = value.substring(0, value.length() - 1).trim();
+            valueEnd--;
+            while (valueEnd > off && color.charAt(valueEnd - 1) <= ' ') {
+                valueEnd--;
+            }
         } else if (type == PARSE_PERCENT) {
             throw new IllegalArgumentException(String.format(
-                "Expected percentage value (ending with '%%'), but got '%s'", rawComponent
+                "Expected percentage value (ending with '%%'), but got '%s'", color.substring(off, end)
             ));
         }
 
-        try {
-            double c = (type == PARSE_COMPONENT) ? Integer.parseInt(value) : Double.parseDouble(value);
-            return switch (type) {
-                case PARSE_ALPHA -> Math.clamp(c, 0.0, 1.0);
-                case PARSE_PERCENT -> Math.clamp(c / 100.0, 0.0, 1.0);
-                case PARSE_COMPONENT -> Math.clamp(c / 255.0, 0.0, 1.0);
-                case PARSE_ANGLE -> ((c % 360.0) + 360.0) % 360.0;
-                default -> throw new IllegalArgumentException("Unsupported component parse type: " + type);
-            };
-        } catch (NumberFormatException e) {
+        double c = parseNumber(color, off, valueEnd, type != PARSE_COMPONENT);
+        if (Double.isNaN(c)) {
             throw new IllegalArgumentException(String.format(
-                "Failed to parse numeric value from component '%s'", rawComponent
-            ), e);
+                "Failed to parse numeric value from component '%s'", color.substring(off, end)
+            ));
         }
+
+        return switch (type) {
+            case PARSE_ALPHA -> Math.clamp(c, 0.0, 1.0);
+            case PARSE_PERCENT -> Math.clamp(c / 100.0, 0.0, 1.0);
+            case PARSE_COMPONENT -> Math.clamp(c / 255.0, 0.0, 1.0);
+            case PARSE_ANGLE -> ((c % 360.0) + 360.0) % 360.0;
+            default -> throw new IllegalArgumentException("Unsupported component parse type: " + type);
+        };
+    }
+
+    /**
+     * Parses a decimal number in the specified range of the string, e.g. {@code -1.5e2}.
+     * Returns {@code NaN} if the range doesn't contain a valid number, or if the number
+     * isn't an integer and fractions aren't allowed.
+     */
+    protected static double parseNumber(String s, int off, int end, boolean allowFraction) {
+        int i = off;
+        boolean negative = false;
+        if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+
+        // digits beyond long precision only affect the exponent
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        for (; i < end && isDigit(s.charAt(i)); i++, digits++) {
+            if (mantissa < 100_000_000_000_000_000L) {
+                mantissa = mantissa * 10 + (s.charAt(i) - '0');
+            } else {
+                exponent++;
+            }
+        }
+
+        if (i < end && s.charAt(i) == '.' && allowFraction) {
+            for (i++; i < end && isDigit(s.charAt(i)); i++, digits++) {
+                if (mantissa < 100_000_000_000_000_000L) {
+                    mantissa = mantissa * 10 + (s.charAt(i) - '0');
+                    exponent--;
+                }
+            }
+        }
+
+        if (digits == 0) {
+            return Double.NaN;
+        }
+
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E') && allowFraction) {
+            i++;
+            boolean negativeExp = false;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExp = s.charAt(i) == '-';
+                i++;
+            }
+
+            int exp = 0;
+            int expStart = i;
+            for (; i < end && isDigit(s.charAt(i)); i++) {
+                if (exp < 10_000) {
+                    exp = exp * 10 + (s.charAt(i) - '0');
+                }
+            }
+
+            if (i == expStart) {
+                return Double.NaN;
+            }
+            exponent += negativeExp ? -exp : exp;
+        }
+
+        if (i != end) {
+            return Double.NaN;
+        }
+
+        double value = exponent < 0
+            ? mantissa / Math.pow(10, -exponent)
+            : mantissa * Math.pow(10, exponent);
+        return negative ? -value : value;
+    }
+
+    protected static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    protected static int hexByte(String s, int off) {
+        int hi = hexDigit(s.charAt(off));
+        int lo = hexDigit(s.charAt(off + 1));
+        return (hi | lo) >= 0 ? (hi << 4) | lo : -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
     /**
@@ -1020,18 +1219,15 @@ public class Colour implements ObservableValue<Colour> {
         if (listener == null) {
             return;
         }
-        if (invalidationListeners == null) {
-            invalidationListeners = new CopyOnWriteArrayList<>();
-        }
-        invalidationListeners.add(listener);
+        listeners = ColourListeners.addListener(listeners, listener);
     }
 
     @Override
     public void removeListener(@Nullable InvalidationListener listener) {
-        if (listener == null || invalidationListeners == null) {
+        if (listener == null) {
             return;
         }
-        invalidationListeners.remove(listener);
+        listeners = ColourListeners.removeListener(listeners, listener);
     }
 
     @Override
@@ -1039,53 +1235,40 @@ public class Colour implements ObservableValue<Colour> {
         if (listener == null) {
             return;
         }
-        if (changeListeners == null) {
-            changeListeners = new CopyOnWriteArrayList<>();
-        }
-        changeListeners.add(listener);
+        listeners = ColourListeners.addListener(listeners, listener);
     }
 
     @Override
     public void removeListener(@Nullable ChangeListener<? super Colour> listener) {
-        if (listener == null || changeListeners == null) {
+        if (listener == null) {
             return;
         }
-        changeListeners.remove(listener);
+        listeners = ColourListeners.removeListener(listeners, listener);
     }
 
     protected void fireValueChanged(long oldValue) {
-        if (invalidationListeners != null && !invalidationListeners.isEmpty()) {
-            for (InvalidationListener listener : invalidationListeners) {
-                listener.invalidated(this);
-            }
-        }
-        if (changeListeners != null && !changeListeners.isEmpty()) {
-            if (oldState == null) {
-                oldState = new Colour(oldValue);
-            } else {
-                oldState.rgba = oldValue;
-            }
-            for (ChangeListener<? super Colour> listener : changeListeners) {
-                listener.changed(this, oldState, this);
-            }
-        }
+        ColourListeners.fireValueChanged(listeners, this, oldValue);
     }
 
     // for unit tests
     boolean isInvalidationListAllocated() {
-        return invalidationListeners != null;
+        return hasInvalidationListeners();
     }
 
     boolean isChangeListAllocated() {
-        return changeListeners != null;
+        return hasChangeListeners();
     }
 
     boolean hasInvalidationListeners() {
-        return invalidationListeners != null && !invalidationListeners.isEmpty();
+        return listeners != null && listeners.getInvalidationListenerCount() > 0;
     }
 
     boolean hasChangeListeners() {
-        return changeListeners != null && !changeListeners.isEmpty();
+        return listeners != null && listeners.getChangeListenerCount() > 0;
+    }
+
+    @Nullable ColourListeners getListeners() {
+        return listeners;
     }
     //endregion
 
@@ -1723,6 +1906,136 @@ public class Colour implements ObservableValue<Colour> {
         }
     }
 
+    /**
+     * Represents a color in the <a href="https://bottosson.github.io/posts/oklab/">OKLab</a>
+     * color space.
+     *
+     * <p>OKLab is a perceptually uniform color space, meaning that the same change of
+     * values produces roughly the same perceived change of color. It's well suited for
+     * interpolation and for building color scales with predictable lightness.
+     *
+     * @param lightness perceived lightness from 0.0 to 1.0
+     * @param a         green-red axis value from -0.5 to 0.5
+     * @param b         blue-yellow axis value from -0.5 to 0.5
+     * @param opacity   opacity value from 0.0 to 1.0
+     */
+    public record OKLab(double lightness, double a, double b, double opacity) {
+
+        public OKLab {
+            checkRange("Lightness", lightness, 0.0, 1.0);
+            checkRange("A", a, -0.5, 0.5);
+            checkRange("B", b, -0.5, 0.5);
+            checkRange("Opacity", opacity, 0.0, 1.0);
+        }
+
+        /**
+         * Creates an opaque OKLab color instance.
+         *
+         * @param lightness perceived lightness from 0.0 to 1.0
+         * @param a         green-red axis value from -0.5 to 0.5
+         * @param b         blue-yellow axis value from -0.5 to 0.5
+         */
+        public OKLab(double lightness, double a, double b) {
+            this(lightness, a, b, 1.0);
+        }
+
+        /**
+         * Converts this OKLab representation to a {@link Colour} object.
+         *
+         * @return new {@link Colour} instance
+         */
+        public Colour toColour() {
+            return new Colour(ColourOps.fromOKLab(lightness, a, b, opacity));
+        }
+
+        /**
+         * Converts this OKLab representation to an {@link RGB} color representation.
+         */
+        public RGB toRGB() {
+            return toColour().toRGB();
+        }
+
+        /**
+         * Converts this OKLab representation to the OKLCH one.
+         */
+        public OKLCH toOKLCH() {
+            double chroma = Math.sqrt(a * a + b * b);
+            double hue = chroma < 1e-6 ? 0.0 : Math.toDegrees(Math.atan2(b, a));
+            return new OKLCH(lightness, Math.min(chroma, 0.5), hue, opacity);
+        }
+
+        @Override
+        public String toString() {
+            if (opacity >= 1.0) {
+                return String.format(Locale.ROOT, "oklab(%.2f%% %.4f %.4f)", lightness * 100.0, a, b);
+            }
+            return String.format(Locale.ROOT, "oklab(%.2f%% %.4f %.4f / %.2f)", lightness * 100.0, a, b, opacity);
+        }
+    }
+
+    /**
+     * Represents a color in the OKLCH color space, the polar (cylindrical) form
+     * of {@link OKLab}.
+     *
+     * @param lightness perceived lightness from 0.0 to 1.0
+     * @param chroma    chroma value from 0.0 to 0.5
+     * @param hue       hue angle in degrees, normalized to range [0.0, 360.0)
+     * @param opacity   opacity value from 0.0 to 1.0
+     */
+    public record OKLCH(double lightness, double chroma, double hue, double opacity) {
+
+        public OKLCH {
+            checkRange("Lightness", lightness, 0.0, 1.0);
+            checkRange("Chroma", chroma, 0.0, 0.5);
+            hue = ((hue % 360.0) + 360.0) % 360.0;
+            checkRange("Opacity", opacity, 0.0, 1.0);
+        }
+
+        /**
+         * Creates an opaque OKLCH color instance.
+         *
+         * @param lightness perceived lightness from 0.0 to 1.0
+         * @param chroma    chroma value from 0.0 to 0.5
+         * @param hue       hue angle in degrees
+         */
+        public OKLCH(double lightness, double chroma, double hue) {
+            this(lightness, chroma, hue, 1.0);
+        }
+
+        /**
+         * Converts this OKLCH representation to a {@link Colour} object.
+         *
+         * @return new {@link Colour} instance
+         */
+        public Colour toColour() {
+            return new Colour(ColourOps.fromOKLCH(lightness, chroma, hue, opacity));
+        }
+
+        /**
+         * Converts this OKLCH representation to an {@link RGB} color representation.
+         */
+        public RGB toRGB() {
+            return toColour().toRGB();
+        }
+
+        /**
+         * Converts this OKLCH representation to the OKLab one.
+         */
+        public OKLab toOKLab() {
+            double h = Math.toRadians(hue);
+            return new OKLab(lightness, chroma * Math.cos(h), chroma * Math.sin(h), opacity);
+        }
+
+        @Override
+        public String toString() {
+            if (opacity >= 1.0) {
+                return String.format(Locale.ROOT, "oklch(%.2f%% %.4f %.2f)", lightness * 100.0, chroma, hue);
+            }
+            return String.format(Locale.ROOT, "oklch(%.2f%% %.4f %.2f / %.2f)",
+                lightness * 100.0, chroma, hue, opacity);
+        }
+    }
+
     /**
      * WCAG 2.0 accessibility contrast levels and ratio criteria.
      *
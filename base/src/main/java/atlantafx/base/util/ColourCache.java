@@ -0,0 +1,105 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of parsed color specifications.
+ *
+ * <p>Useful when the same color strings are parsed over and over, e.g. when reading
+ * colors from theme stylesheets or user configs. The cache stores packed color values,
+ * see {@link ColourOps}, and evicts the least recently used specification when the
+ * capacity is exceeded. Since {@link Colour} is mutable, {@link #get(String)} returns
+ * a new instance on every call.
+ *
+ * <pre>{@code
+ * var cache = new ColourCache(256);
+ * Colour accent = cache.get("#0969da");
+ * long muted = cache.parse("rgba(9, 105, 218, 0.4)");
+ * }</pre>
+ *
+ * <p>This class is thread-safe.
+ */
+public final class ColourCache {
+
+    private final int capacity;
+    private final Map<String, Long> cache;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param capacity the maximum number of cached specifications
+     */
+    public ColourCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > ColourCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the packed value of the specified color. See {@link Colour#of(String)}.
+     *
+     * @param color text representation of a color
+     * @throws IllegalArgumentException if the text format is invalid
+     */
+    public long parse(String color) {
+        synchronized (cache) {
+            Long value = cache.get(color);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        // parse outside the lock, invalid specifications aren't cached
+        long value = Colour.parse(color, 1.0);
+        synchronized (cache) {
+            cache.put(color, value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns a new color instance for the specified specification. See {@link Colour#of(String)}.
+     *
+     * @param color text representation of a color
+     * @throws IllegalArgumentException if the text format is invalid
+     */
+    public Colour get(String color) {
+        return new Colour(parse(color));
+    }
+
+    /**
+     * Returns the maximum number of cached specifications.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of cached specifications.
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Removes all cached specifications.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+}
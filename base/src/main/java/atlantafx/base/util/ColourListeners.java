@@ -0,0 +1,325 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.util;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Compact listener storage for the observable {@link Colour}.
+ *
+ * <p>Modeled after the JavaFX {@code ExpressionHelper}. A color keeps a single
+ * field, which is {@code null} without listeners, holds a lightweight wrapper for
+ * a single listener, and only switches to growable arrays when more listeners are
+ * added. Arrays are copied only if listeners are added or removed while firing,
+ * instead of on every modification.
+ *
+ * <p>The previous value passed to change listeners is kept by the helper and
+ * reused across notifications, so colors that only have invalidation listeners
+ * don't pay for it.
+ */
+abstract class ColourListeners {
+
+    static ColourListeners addListener(@Nullable ColourListeners helper, InvalidationListener listener) {
+        return helper == null ? new SingleInvalidation(listener) : helper.add(listener);
+    }
+
+    static ColourListeners addListener(@Nullable ColourListeners helper, ChangeListener<? super Colour> listener) {
+        return helper == null ? new SingleChange(listener, null) : helper.add(listener);
+    }
+
+    static @Nullable ColourListeners removeListener(@Nullable ColourListeners helper,
+                                                   InvalidationListener listener) {
+        return helper == null ? null : helper.remove(listener);
+    }
+
+    static @Nullable ColourListeners removeListener(@Nullable ColourListeners helper,
+                                                   ChangeListener<? super Colour> listener) {
+        return helper == null ? null : helper.remove(listener);
+    }
+
+    static void fireValueChanged(@Nullable ColourListeners helper, Colour observable, long oldValue) {
+        if (helper != null) {
+            helper.fire(observable, oldValue);
+        }
+    }
+
+    protected abstract ColourListeners add(InvalidationListener listener);
+
+    protected abstract ColourListeners add(ChangeListener<? super Colour> listener);
+
+    protected abstract @Nullable ColourListeners remove(InvalidationListener listener);
+
+    protected abstract @Nullable ColourListeners remove(ChangeListener<? super Colour> listener);
+
+    protected abstract void fire(Colour observable, long oldValue);
+
+    abstract int getInvalidationListenerCount();
+
+    abstract int getChangeListenerCount();
+
+    protected static Colour updateOldState(@Nullable Colour oldState, long oldValue) {
+        if (oldState == null) {
+            return new Colour(oldValue);
+        }
+        oldState.rgba = oldValue;
+        return oldState;
+    }
+
+    //*************************************************************************
+
+    private static final class SingleInvalidation extends ColourListeners {
+
+        private final InvalidationListener listener;
+
+        private SingleInvalidation(InvalidationListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        protected ColourListeners add(InvalidationListener listener) {
+            return new Generic(new InvalidationListener[] {this.listener, listener}, 2, null, 0, null);
+        }
+
+        @Override
+        protected ColourListeners add(ChangeListener<? super Colour> listener) {
+            return new Generic(
+                new InvalidationListener[] {this.listener}, 1, new ChangeListener<?>[] {listener}, 1, null
+            );
+        }
+
+        @Override
+        protected @Nullable ColourListeners remove(InvalidationListener listener) {
+            return this.listener.equals(listener) ? null : this;
+        }
+
+        @Override
+        protected ColourListeners remove(ChangeListener<? super Colour> listener) {
+            return this;
+        }
+
+        @Override
+        protected void fire(Colour observable, long oldValue) {
+            listener.invalidated(observable);
+        }
+
+        @Override
+        int getInvalidationListenerCount() {
+            return 1;
+        }
+
+        @Override
+        int getChangeListenerCount() {
+            return 0;
+        }
+    }
+
+    private static final class SingleChange extends ColourListeners {
+
+        private final ChangeListener<? super Colour> listener;
+        private @Nullable Colour oldState;
+
+        private SingleChange(ChangeListener<? super Colour> listener, @Nullable Colour oldState) {
+            this.listener = listener;
+            this.oldState = oldState;
+        }
+
+        @Override
+        protected ColourListeners add(InvalidationListener listener) {
+            return new Generic(
+                new InvalidationListener[] {listener}, 1, new ChangeListener<?>[] {this.listener}, 1, oldState
+            );
+        }
+
+        @Override
+        protected ColourListeners add(ChangeListener<? super Colour> listener) {
+            return new Generic(null, 0, new ChangeListener<?>[] {this.listener, listener}, 2, oldState);
+        }
+
+        @Override
+        protected ColourListeners remove(InvalidationListener listener) {
+            return this;
+        }
+
+        @Override
+        protected @Nullable ColourListeners remove(ChangeListener<? super Colour> listener) {
+            return this.listener.equals(listener) ? null : this;
+        }
+
+        @Override
+        protected void fire(Colour observable, long oldValue) {
+            var old = updateOldState(oldState, oldValue);
+            oldState = old;
+            listener.changed(observable, old, observable);
+        }
+
+        @Override
+        int getInvalidationListenerCount() {
+            return 0;
+        }
+
+        @Override
+        int getChangeListenerCount() {
+            return 1;
+        }
+    }
+
+    private static final class Generic extends ColourListeners {
+
+        private InvalidationListener @Nullable [] invalidationListeners;
+        private ChangeListener<?> @Nullable [] changeListeners;
+        private int invalidationSize;
+        private int changeSize;
+        private @Nullable Colour oldState;
+        private boolean locked;
+
+        private Generic(InvalidationListener @Nullable [] invalidationListeners, int invalidationSize,
+                        ChangeListener<?> @Nullable [] changeListeners, int changeSize,
+                        @Nullable Colour oldState) {
+            this.invalidationListeners = invalidationListeners;
+            this.invalidationSize = invalidationSize;
+            this.changeListeners = changeListeners;
+            this.changeSize = changeSize;
+            this.oldState = oldState;
+        }
+
+        @Override
+        protected ColourListeners add(InvalidationListener listener) {
+            var listeners = invalidationListeners;
+            if (listeners == null) {
+                listeners = new InvalidationListener[] {listener};
+            } else {
+                int capacity = listeners.length;
+                if (locked) {
+                    listeners = Arrays.copyOf(listeners, invalidationSize < capacity ? capacity : grow(capacity));
+                } else if (invalidationSize == capacity) {
+                    listeners = Arrays.copyOf(listeners, grow(capacity));
+                }
+                listeners[invalidationSize] = listener;
+            }
+            invalidationListeners = listeners;
+            invalidationSize++;
+            return this;
+        }
+
+        @Override
+        protected ColourListeners add(ChangeListener<? super Colour> listener) {
+            var listeners = changeListeners;
+            if (listeners == null) {
+                listeners = new ChangeListener<?>[] {listener};
+            } else {
+                int capacity = listeners.length;
+                if (locked) {
+                    listeners = Arrays.copyOf(listeners, changeSize < capacity ? capacity : grow(capacity));
+                } else if (changeSize == capacity) {
+                    listeners = Arrays.copyOf(listeners, grow(capacity));
+                }
+                listeners[changeSize] = listener;
+            }
+            changeListeners = listeners;
+            changeSize++;
+            return this;
+        }
+
+        @Override
+        protected @Nullable ColourListeners remove(InvalidationListener listener) {
+            var listeners = invalidationListeners;
+            if (listeners != null) {
+                for (int i = 0; i < invalidationSize; i++) {
+                    if (listener.equals(listeners[i])) {
+                        invalidationListeners = removeAt(listeners, invalidationSize, i);
+                        invalidationSize--;
+                        return compact();
+                    }
+                }
+            }
+            return this;
+        }
+
+        @Override
+        protected @Nullable ColourListeners remove(ChangeListener<? super Colour> listener) {
+            var listeners = changeListeners;
+            if (listeners != null) {
+                for (int i = 0; i < changeSize; i++) {
+                    if (listener.equals(listeners[i])) {
+                        changeListeners = removeAt(listeners, changeSize, i);
+                        changeSize--;
+                        return compact();
+                    }
+                }
+            }
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void fire(Colour observable, long oldValue) {
+            // a snapshot, listeners can be added or removed by the listeners themselves
+            var currentInvalidationListeners = invalidationListeners;
+            int currentInvalidationSize = invalidationSize;
+            var currentChangeListeners = changeListeners;
+            int currentChangeSize = changeSize;
+
+            locked = true;
+            try {
+                if (currentInvalidationListeners != null) {
+                    for (int i = 0; i < currentInvalidationSize; i++) {
+                        currentInvalidationListeners[i].invalidated(observable);
+                    }
+                }
+                if (currentChangeListeners != null && currentChangeSize > 0) {
+                    var old = updateOldState(oldState, oldValue);
+                    oldState = old;
+                    for (int i = 0; i < currentChangeSize; i++) {
+                        var listener = (ChangeListener<? super Colour>) currentChangeListeners[i];
+                        listener.changed(observable, old, observable);
+                    }
+                }
+            } finally {
+                locked = false;
+            }
+        }
+
+        @Override
+        int getInvalidationListenerCount() {
+            return invalidationSize;
+        }
+
+        @Override
+        int getChangeListenerCount() {
+            return changeSize;
+        }
+
+        @SuppressWarnings("unchecked")
+        private @Nullable ColourListeners compact() {
+            if (invalidationSize + changeSize > 1) {
+                return this;
+            }
+            if (invalidationSize == 1 && invalidationListeners != null) {
+                return new SingleInvalidation(invalidationListeners[0]);
+            }
+            if (changeSize == 1 && changeListeners != null) {
+                return new SingleChange((ChangeListener<? super Colour>) changeListeners[0], oldState);
+            }
+            return null;
+        }
+
+        private <T> T[] removeAt(T[] listeners, int size, int index) {
+            // don't modify the array that is being iterated
+            T[] result = locked ? Arrays.copyOf(listeners, listeners.length) : listeners;
+            int moved = size - index - 1;
+            if (moved > 0) {
+                System.arraycopy(result, index + 1, result, index, moved);
+            }
+            result[size - 1] = null;
+            return result;
+        }
+
+        private static int grow(int capacity) {
+            return capacity * 3 / 2 + 1;
+        }
+    }
+}
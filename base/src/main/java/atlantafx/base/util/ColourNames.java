@@ -0,0 +1,230 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Map.entry;
+
+/**
+ * The table of <a href="https://www.w3.org/TR/css-color-4/#named-colors">CSS named colors</a>.
+ * Names are stored in a sorted array, so that they can be looked up by binary search
+ * directly in the source string, without creating a substring or lowercase copy.
+ */
+final class ColourNames {
+
+    private static final String[] NAMES;
+    private static final int[] VALUES;
+
+    static {
+        // 0xRRGGBBAA
+        Map<String, Integer> table = Map.ofEntries(
+            entry("aliceblue", 0xF0F8FFFF),
+            entry("antiquewhite", 0xFAEBD7FF),
+            entry("aqua", 0x00FFFFFF),
+            entry("aquamarine", 0x7FFFD4FF),
+            entry("azure", 0xF0FFFFFF),
+            entry("beige", 0xF5F5DCFF),
+            entry("bisque", 0xFFE4C4FF),
+            entry("black", 0x000000FF),
+            entry("blanchedalmond", 0xFFEBCDFF),
+            entry("blue", 0x0000FFFF),
+            entry("blueviolet", 0x8A2BE2FF),
+            entry("brown", 0xA52A2AFF),
+            entry("burlywood", 0xDEB887FF),
+            entry("cadetblue", 0x5F9EA0FF),
+            entry("chartreuse", 0x7FFF00FF),
+            entry("chocolate", 0xD2691EFF),
+            entry("coral", 0xFF7F50FF),
+            entry("cornflowerblue", 0x6495EDFF),
+            entry("cornsilk", 0xFFF8DCFF),
+            entry("crimson", 0xDC143CFF),
+            entry("cyan", 0x00FFFFFF),
+            entry("darkblue", 0x00008BFF),
+            entry("darkcyan", 0x008B8BFF),
+            entry("darkgoldenrod", 0xB8860BFF),
+            entry("darkgray", 0xA9A9A9FF),
+            entry("darkgreen", 0x006400FF),
+            entry("darkgrey", 0xA9A9A9FF),
+            entry("darkkhaki", 0xBDB76BFF),
+            entry("darkmagenta", 0x8B008BFF),
+            entry("darkolivegreen", 0x556B2FFF),
+            entry("darkorange", 0xFF8C00FF),
+            entry("darkorchid", 0x9932CCFF),
+            entry("darkred", 0x8B0000FF),
+            entry("darksalmon", 0xE9967AFF),
+            entry("darkseagreen", 0x8FBC8FFF),
+            entry("darkslateblue", 0x483D8BFF),
+            entry("darkslategray", 0x2F4F4FFF),
+            entry("darkslategrey", 0x2F4F4FFF),
+            entry("darkturquoise", 0x00CED1FF),
+            entry("darkviolet", 0x9400D3FF),
+            entry("deeppink", 0xFF1493FF),
+            entry("deepskyblue", 0x00BFFFFF),
+            entry("dimgray", 0x696969FF),
+            entry("dimgrey", 0x696969FF),
+            entry("dodgerblue", 0x1E90FFFF),
+            entry("firebrick", 0xB22222FF),
+            entry("floralwhite", 0xFFFAF0FF),
+            entry("forestgreen", 0x228B22FF),
+            entry("fuchsia", 0xFF00FFFF),
+            entry("gainsboro", 0xDCDCDCFF),
+            entry("ghostwhite", 0xF8F8FFFF),
+            entry("gold", 0xFFD700FF),
+            entry("goldenrod", 0xDAA520FF),
+            entry("gray", 0x808080FF),
+            entry("green", 0x008000FF),
+            entry("greenyellow", 0xADFF2FFF),
+            entry("grey", 0x808080FF),
+            entry("honeydew", 0xF0FFF0FF),
+            entry("hotpink", 0xFF69B4FF),
+            entry("indianred", 0xCD5C5CFF),
+            entry("indigo", 0x4B0082FF),
+            entry("ivory", 0xFFFFF0FF),
+            entry("khaki", 0xF0E68CFF),
+            entry("lavender", 0xE6E6FAFF),
+            entry("lavenderblush", 0xFFF0F5FF),
+            entry("lawngreen", 0x7CFC00FF),
+            entry("lemonchiffon", 0xFFFACDFF),
+            entry("lightblue", 0xADD8E6FF),
+            entry("lightcoral", 0xF08080FF),
+            entry("lightcyan", 0xE0FFFFFF),
+            entry("lightgoldenrodyellow", 0xFAFAD2FF),
+            entry("lightgray", 0xD3D3D3FF),
+            entry("lightgreen", 0x90EE90FF),
+            entry("lightgrey", 0xD3D3D3FF),
+            entry("lightpink", 0xFFB6C1FF),
+            entry("lightsalmon", 0xFFA07AFF),
+            entry("lightseagreen", 0x20B2AAFF),
+            entry("lightskyblue", 0x87CEFAFF),
+            entry("lightslategray", 0x778899FF),
+            entry("lightslategrey", 0x778899FF),
+            entry("lightsteelblue", 0xB0C4DEFF),
+            entry("lightyellow", 0xFFFFE0FF),
+            entry("lime", 0x00FF00FF),
+            entry("limegreen", 0x32CD32FF),
+            entry("linen", 0xFAF0E6FF),
+            entry("magenta", 0xFF00FFFF),
+            entry("maroon", 0x800000FF),
+            entry("mediumaquamarine", 0x66CDAAFF),
+            entry("mediumblue", 0x0000CDFF),
+            entry("mediumorchid", 0xBA55D3FF),
+            entry("mediumpurple", 0x9370DBFF),
+            entry("mediumseagreen", 0x3CB371FF),
+            entry("mediumslateblue", 0x7B68EEFF),
+            entry("mediumspringgreen", 0x00FA9AFF),
+            entry("mediumturquoise", 0x48D1CCFF),
+            entry("mediumvioletred", 0xC71585FF),
+            entry("midnightblue", 0x191970FF),
+            entry("mintcream", 0xF5FFFAFF),
+            entry("mistyrose", 0xFFE4E1FF),
+            entry("moccasin", 0xFFE4B5FF),
+            entry("navajowhite", 0xFFDEADFF),
+            entry("navy", 0x000080FF),
+            entry("oldlace", 0xFDF5E6FF),
+            entry("olive", 0x808000FF),
+            entry("olivedrab", 0x6B8E23FF),
+            entry("orange", 0xFFA500FF),
+            entry("orangered", 0xFF4500FF),
+            entry("orchid", 0xDA70D6FF),
+            entry("palegoldenrod", 0xEEE8AAFF),
+            entry("palegreen", 0x98FB98FF),
+            entry("paleturquoise", 0xAFEEEEFF),
+            entry("palevioletred", 0xDB7093FF),
+            entry("papayawhip", 0xFFEFD5FF),
+            entry("peachpuff", 0xFFDAB9FF),
+            entry("peru", 0xCD853FFF),
+            entry("pink", 0xFFC0CBFF),
+            entry("plum", 0xDDA0DDFF),
+            entry("powderblue", 0xB0E0E6FF),
+            entry("purple", 0x800080FF),
+            entry("rebeccapurple", 0x663399FF),
+            entry("red", 0xFF0000FF),
+            entry("rosybrown", 0xBC8F8FFF),
+            entry("royalblue", 0x4169E1FF),
+            entry("saddlebrown", 0x8B4513FF),
+            entry("salmon", 0xFA8072FF),
+            entry("sandybrown", 0xF4A460FF),
+            entry("seagreen", 0x2E8B57FF),
+            entry("seashell", 0xFFF5EEFF),
+            entry("sienna", 0xA0522DFF),
+            entry("silver", 0xC0C0C0FF),
+            entry("skyblue", 0x87CEEBFF),
+            entry("slateblue", 0x6A5ACDFF),
+            entry("slategray", 0x708090FF),
+            entry("slategrey", 0x708090FF),
+            entry("snow", 0xFFFAFAFF),
+            entry("springgreen", 0x00FF7FFF),
+            entry("steelblue", 0x4682B4FF),
+            entry("tan", 0xD2B48CFF),
+            entry("teal", 0x008080FF),
+            entry("thistle", 0xD8BFD8FF),
+            entry("tomato", 0xFF6347FF),
+            entry("transparent", 0x00000000),
+            entry("turquoise", 0x40E0D0FF),
+            entry("violet", 0xEE82EEFF),
+            entry("wheat", 0xF5DEB3FF),
+            entry("white", 0xFFFFFFFF),
+            entry("whitesmoke", 0xF5F5F5FF),
+            entry("yellow", 0xFFFF00FF),
+            entry("yellowgreen", 0x9ACD32FF)
+        );
+
+        NAMES = table.keySet().toArray(new String[0]);
+        Arrays.sort(NAMES);
+        VALUES = new int[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++) {
+            VALUES[i] = table.get(NAMES[i]);
+        }
+    }
+
+    private ColourNames() {
+        // static utility class
+    }
+
+    /**
+     * Returns all color names in the alphabetical order.
+     */
+    static List<String> names() {
+        return List.of(NAMES);
+    }
+
+    /**
+     * Looks up a color by the case-insensitive name in the specified range of the string.
+     *
+     * @return color value in the {@code 0xRRGGBBAA} format, or -1 if there's no such color
+     */
+    static long find(String s, int off, int end) {
+        int low = 0;
+        int high = NAMES.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(NAMES[mid], s, off, end);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return Integer.toUnsignedLong(VALUES[mid]);
+            }
+        }
+        return -1;
+    }
+
+    private static int compare(String name, String s, int off, int end) {
+        int len = Math.min(name.length(), end - off);
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(off + i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            int cmp = name.charAt(i) - c;
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return name.length() - (end - off);
+    }
+}
@@ -0,0 +1,796 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.util;
+
+/**
+ * Allocation-free color operations on packed color values.
+ *
+ * <p>A packed color is the same 64-bit value that {@link Colour} uses internally:
+ * {@code 0xRRRRGGGGBBBBAAAA}, 16 bits per channel. It can be obtained via
+ * {@link Colour#getRGBA()} and converted back with {@link Colour#Colour(long)} or
+ * {@link Colour#setRGBA(long)}. All methods of this class are static, pure and,
+ * with the exception of {@link #contrastMatrix(long[], long[], double[])}, don't
+ * create any objects, so they're suitable for per-frame code, e.g. computing
+ * gradient stops or heatmap cells. Results are identical to the corresponding
+ * {@link Colour} methods, which delegate to this class.
+ *
+ * <p>Unlike {@link Colour}, the factory methods don't validate their arguments,
+ * but clamp channel values to the [0.0, 1.0] range instead.
+ *
+ * <pre>{@code
+ * long from = Colour.of("#0969da").getRGBA();
+ * long to = Colour.of("#cf222e").getRGBA();
+ * for (int i = 0; i < cells.length; i++) {
+ *     cells[i] = ColourOps.interpolate(from, to, values[i]);
+ * }
+ * }</pre>
+ *
+ * <p>The bulk methods apply the same operations to arrays of packed colors. They're
+ * plain branch-light loops over primitive arrays, which the JIT compiler can unroll
+ * and partially vectorize, and produce exactly the same results as the scalar methods.
+ *
+ * <p>OKLab and OKLCH conversions are noticeably more expensive than the sRGB ones.
+ * Every converted color costs three {@code Math.cbrt()} calls, so
+ * {@link #interpolateOKLab(long, long, double)} makes six of them per call. Channel
+ * decoding uses a lookup table for colors with 8-bit precision only, while other
+ * channel values fall back to {@code Math.pow()}. For per-frame code, prefer colors
+ * parsed from 8-bit values or precompute the gradient stops once.
+ */
+public final class ColourOps {
+
+    private static final double MAX_16BIT_D = Colour.MAX_16BIT_D;
+
+    // OKLCH chroma below which the hue is considered powerless
+    private static final double ACHROMATIC_CHROMA = 1e-6;
+
+    private ColourOps() {
+        // static utility class
+    }
+
+    //region ACCESSORS
+    //*************************************************************************
+
+    /**
+     * Returns the red channel of the packed color.
+     *
+     * @param rgba packed color
+     * @return red channel value from 0.0 to 1.0
+     */
+    public static double red(long rgba) {
+        return ((rgba >>> 48) & 0xFFFFL) / MAX_16BIT_D;
+    }
+
+    /**
+     * Returns the green channel of the packed color.
+     *
+     * @param rgba packed color
+     * @return green channel value from 0.0 to 1.0
+     */
+    public static double green(long rgba) {
+        return ((rgba >>> 32) & 0xFFFFL) / MAX_16BIT_D;
+    }
+
+    /**
+     * Returns the blue channel of the packed color.
+     *
+     * @param rgba packed color
+     * @return blue channel value from 0.0 to 1.0
+     */
+    public static double blue(long rgba) {
+        return ((rgba >>> 16) & 0xFFFFL) / MAX_16BIT_D;
+    }
+
+    /**
+     * Returns the opacity of the packed color.
+     *
+     * @param rgba packed color
+     * @return opacity value from 0.0 to 1.0
+     */
+    public static double opacity(long rgba) {
+        return (rgba & 0xFFFFL) / MAX_16BIT_D;
+    }
+
+    /**
+     * Packs floating-point components into a single value.
+     * Components outside the [0.0, 1.0] range are clamped.
+     *
+     * @param red     red channel value from 0.0 to 1.0
+     * @param green   green channel value from 0.0 to 1.0
+     * @param blue    blue channel value from 0.0 to 1.0
+     * @param opacity opacity value from 0.0 to 1.0
+     * @return packed color
+     */
+    public static long pack(double red, double green, double blue, double opacity) {
+        return Colour.pack16(channel(red), channel(green), channel(blue), channel(opacity));
+    }
+
+    /**
+     * Parses a color specification into a packed color.
+     * See {@link Colour#of(String)} for the supported formats.
+     *
+     * @param color text representation of a color
+     * @return packed color
+     * @throws IllegalArgumentException if the text format is invalid
+     */
+    public static long parse(String color) {
+        return Colour.parse(color, 1.0);
+    }
+
+    /**
+     * Returns the packed color with the opacity replaced.
+     *
+     * @param rgba    packed color
+     * @param opacity opacity value from 0.0 to 1.0
+     * @return packed color
+     */
+    public static long withOpacity(long rgba, double opacity) {
+        return (rgba & 0xFFFFFFFFFFFF0000L) | channel(opacity);
+    }
+
+    /**
+     * Converts a 32-bit ARGB color, as used by {@link javafx.scene.image.PixelFormat},
+     * to a packed color.
+     *
+     * @param argb color in the {@code 0xAARRGGBB} format
+     * @return packed color
+     */
+    public static long fromARGB(int argb) {
+        // 0xFF * 257 = 0xFFFF, same as converting via floating-point components
+        return Colour.pack16(
+            ((argb >>> 16) & 0xFFL) * 257,
+            ((argb >>> 8) & 0xFFL) * 257,
+            (argb & 0xFFL) * 257,
+            ((argb >>> 24) & 0xFFL) * 257
+        );
+    }
+
+    /**
+     * Converts a packed color to a 32-bit ARGB color.
+     *
+     * @param rgba packed color
+     * @return color in the {@code 0xAARRGGBB} format
+     */
+    public static int toARGB(long rgba) {
+        return (to8bit(rgba) << 24) | (to8bit(rgba >>> 48) << 16) | (to8bit(rgba >>> 32) << 8) | to8bit(rgba >>> 16);
+    }
+    //endregion
+
+    //region MANIPULATIONS
+    //*************************************************************************
+
+    /**
+     * Performs linear interpolation between two packed colors.
+     * See {@link Colour#interpolate(Colour, double)}.
+     *
+     * @param start start color
+     * @param end   end color
+     * @param t     progress ratio from 0.0 to 1.0
+     * @return packed color
+     */
+    public static long interpolate(long start, long end, double t) {
+        if (t == 0.0 || start == end) {
+            return start;
+        }
+        if (t == 1.0) {
+            return end;
+        }
+
+        double ir = red(start);
+        double ig = green(start);
+        double ib = blue(start);
+        double io = opacity(start);
+
+        double r = Math.round((ir + (red(end) - ir) * t) * 1e10) / 1e10;
+        double g = Math.round((ig + (green(end) - ig) * t) * 1e10) / 1e10;
+        double b = Math.round((ib + (blue(end) - ib) * t) * 1e10) / 1e10;
+        double a = Math.round((io + (opacity(end) - io) * t) * 1e10) / 1e10;
+
+        return pack(r, g, b, a);
+    }
+
+    /**
+     * Blends a translucent color over an opaque background.
+     * See {@link Colour#flatten(Colour)}.
+     *
+     * @param foreground color to blend
+     * @param background opaque color underneath
+     * @return opaque packed color, or the foreground itself if it's already opaque
+     */
+    public static long flatten(long foreground, long background) {
+        double opacity = opacity(foreground);
+        if (opacity >= 1.0) {
+            return foreground;
+        }
+
+        double r = opacity * red(foreground) + (1.0 - opacity) * red(background);
+        double g = opacity * green(foreground) + (1.0 - opacity) * green(background);
+        double b = opacity * blue(foreground) + (1.0 - opacity) * blue(background);
+
+        return pack(r, g, b, 1.0);
+    }
+
+    /**
+     * Modifies a packed color by applying scaling factors in the HSB space.
+     * See {@link Colour#derive(double, double, double, double)}.
+     *
+     * @param rgba             packed color
+     * @param hueShift         degrees to add to current hue
+     * @param saturationFactor multiplier for current saturation
+     * @param brightnessFactor multiplier for current brightness
+     * @param opacityFactor    multiplier for current opacity
+     * @return packed color
+     */
+    public static long derive(long rgba, double hueShift, double saturationFactor,
+                              double brightnessFactor, double opacityFactor) {
+        double red = red(rgba);
+        double green = green(rgba);
+        double blue = blue(rgba);
+
+        double b = Math.max(red, Math.max(green, blue));
+        if (b == 0 && brightnessFactor > 1.0) {
+            b = 0.05;
+        }
+
+        double h = (((hsbHue(red, green, blue) + hueShift) % 360.0) + 360.0) % 360.0;
+        double s = Math.clamp(hsbSaturation(red, green, blue) * saturationFactor, 0.0, 1.0);
+        b = Math.clamp(b * brightnessFactor, 0.0, 1.0);
+        double a = Math.clamp(opacity(rgba) * opacityFactor, 0.0, 1.0);
+
+        h = Math.round(h * 1e4) / 1e4;
+        s = Math.round(s * 1e4) / 1e4;
+        b = Math.round(b * 1e4) / 1e4;
+
+        return fromHSB(h, s, b, a);
+    }
+    //endregion
+
+    //region ACCESSIBILITY
+    //*************************************************************************
+
+    /**
+     * Measures relative luminance of the packed color.
+     * See {@link Colour#getLuminance()}.
+     *
+     * @param rgba packed color
+     * @return relative luminance value from 0.0 to 1.0
+     */
+    public static double luminance(long rgba) {
+        double r = wcagToLinear(rgba >>> 48);
+        double g = wcagToLinear(rgba >>> 32);
+        double b = wcagToLinear(rgba >>> 16);
+
+        return (0.2126 * r) + (0.7152 * g) + (0.0722 * b);
+    }
+
+    /**
+     * Calculates the WCAG contrast ratio between two packed colors.
+     * See {@link Colour#getContrastRatioTo(Colour)}.
+     *
+     * @param rgba1 first packed color
+     * @param rgba2 second packed color
+     * @return contrast ratio in range [1.0, 21.0]
+     */
+    public static double contrastRatio(long rgba1, long rgba2) {
+        return Colour.ContrastLevel.getContrastRatio(luminance(rgba1), luminance(rgba2));
+    }
+    //endregion
+
+    //region CONVERTERS
+    //*************************************************************************
+
+    /**
+     * Converts HSB components to a packed color.
+     * See {@link Colour.HSB#toRGB(double, double, double, double)}.
+     *
+     * @param hue        hue angle in degrees
+     * @param saturation saturation value from 0.0 to 1.0
+     * @param brightness brightness value from 0.0 to 1.0
+     * @param opacity    opacity value from 0.0 to 1.0
+     * @return packed color
+     */
+    public static long fromHSB(double hue, double saturation, double brightness, double opacity) {
+        if (saturation <= 0) {
+            return pack(brightness, brightness, brightness, opacity);
+        }
+
+        double h = (((hue % 360.0) + 360.0) % 360.0) / 60.0;
+        int i = (int) Math.floor(h);
+        double f = h - i;
+
+        double p = brightness * (1.0 - saturation);
+        double q = brightness * (1.0 - saturation * f);
+        double t = brightness * (1.0 - saturation * (1.0 - f));
+
+        return switch (i) {
+            case 0 -> pack(brightness, t, p, opacity);
+            case 1 -> pack(q, brightness, p, opacity);
+            case 2 -> pack(p, brightness, t, opacity);
+            case 3 -> pack(p, q, brightness, opacity);
+            case 4 -> pack(t, p, brightness, opacity);
+            default -> pack(brightness, p, q, opacity);
+        };
+    }
+
+    /**
+     * Converts the packed color to HSB components.
+     * See {@link Colour.HSB#fromRGB(double, double, double, double)}.
+     *
+     * @param rgba packed color
+     * @param out  array of at least four elements to receive
+     *             hue, saturation, brightness and opacity
+     * @return the {@code out} array
+     */
+    public static double[] toHSB(long rgba, double[] out) {
+        double r = red(rgba);
+        double g = green(rgba);
+        double b = blue(rgba);
+
+        out[0] = hsbHue(r, g, b);
+        out[1] = hsbSaturation(r, g, b);
+        out[2] = Math.max(r, Math.max(g, b));
+        out[3] = opacity(rgba);
+        return out;
+    }
+
+    /**
+     * Converts HSL components to a packed color.
+     * See {@link Colour.HSL#toRGB(double, double, double, double)}.
+     *
+     * @param hue        hue angle in degrees
+     * @param saturation saturation value from 0.0 to 1.0
+     * @param lightness  lightness value from 0.0 to 1.0
+     * @param opacity    opacity value from 0.0 to 1.0
+     * @return packed color
+     */
+    public static long fromHSL(double hue, double saturation, double lightness, double opacity) {
+        double c = (1.0 - Math.abs(2.0 * lightness - 1.0)) * saturation;
+        double h = (((hue % 360.0) + 360.0) % 360.0) / 60.0;
+        double x = c * (1.0 - Math.abs((h % 2.0) - 1.0));
+        double m = lightness - c / 2.0;
+
+        return switch ((int) Math.floor(h)) {
+            case 0 -> pack(c + m, x + m, m, opacity);
+            case 1 -> pack(x + m, c + m, m, opacity);
+            case 2 -> pack(m, c + m, x + m, opacity);
+            case 3 -> pack(m, x + m, c + m, opacity);
+            case 4 -> pack(x + m, m, c + m, opacity);
+            default -> pack(c + m, m, x + m, opacity);
+        };
+    }
+
+    /**
+     * Converts the packed color to HSL components.
+     * See {@link Colour.HSL#fromRGB(double, double, double, double)}.
+     *
+     * @param rgba packed color
+     * @param out  array of at least four elements to receive
+     *             hue, saturation, lightness and opacity
+     * @return the {@code out} array
+     */
+    public static double[] toHSL(long rgba, double[] out) {
+        double r = red(rgba);
+        double g = green(rgba);
+        double b = blue(rgba);
+
+        double min = Math.min(Math.min(r, g), b);
+        double max = Math.max(Math.max(r, g), b);
+        double range = max - min;
+
+        double lightness = (max + min) / 2.0;
+        double saturation = 0.0;
+        double hue = 0.0;
+
+        if (range > 0.0) {
+            saturation = lightness > 0.5
+                ? range / (2.0 - max - min)
+                : range / (max + min);
+
+            if (max == r) {
+                hue = (g - b) / range + (g < b ? 6.0 : 0.0);
+            } else if (max == g) {
+                hue = (b - r) / range + 2.0;
+            } else {
+                hue = (r - g) / range + 4.0;
+            }
+            hue *= 60.0;
+        }
+
+        out[0] = hue;
+        out[1] = saturation;
+        out[2] = lightness;
+        out[3] = opacity(rgba);
+        return out;
+    }
+    //endregion
+
+    //region OKLAB
+    //*************************************************************************
+
+    /**
+     * Converts the packed color to <a href="https://bottosson.github.io/posts/oklab/">OKLab</a>
+     * components. See {@link Colour.OKLab}.
+     *
+     * @param rgba packed color
+     * @param out  array of at least four elements to receive
+     *             lightness, a, b and opacity
+     * @return the {@code out} array
+     */
+    public static double[] toOKLab(long rgba, double[] out) {
+        double r = srgbToLinear(rgba >>> 48);
+        double g = srgbToLinear(rgba >>> 32);
+        double b = srgbToLinear(rgba >>> 16);
+
+        double l = Math.cbrt(0.4122214708 * r + 0.5363325363 * g + 0.0514459929 * b);
+        double m = Math.cbrt(0.2119034982 * r + 0.6806995451 * g + 0.1073969566 * b);
+        double s = Math.cbrt(0.0883024619 * r + 0.2817188376 * g + 0.6299787005 * b);
+
+        out[0] = 0.2104542553 * l + 0.7936177850 * m - 0.0040720468 * s;
+        out[1] = 1.9779984951 * l - 2.4285922050 * m + 0.4505937099 * s;
+        out[2] = 0.0259040371 * l + 0.7827717662 * m - 0.8086757660 * s;
+        out[3] = opacity(rgba);
+        return out;
+    }
+
+    /**
+     * Converts OKLab components to a packed color. Colors outside the sRGB gamut
+     * are clipped.
+     *
+     * @param lightness perceived lightness from 0.0 to 1.0
+     * @param a         green-red axis, roughly from -0.4 to 0.4
+     * @param b         blue-yellow axis, roughly from -0.4 to 0.4
+     * @param opacity   opacity value from 0.0 to 1.0
+     * @return packed color
+     */
+    public static long fromOKLab(double lightness, double a, double b, double opacity) {
+        double l = lightness + 0.3963377774 * a + 0.2158037573 * b;
+        double m = lightness - 0.1055613458 * a - 0.0638541728 * b;
+        double s = lightness - 0.0894841775 * a - 1.2914855480 * b;
+        return fromLMS(l * l * l, m * m * m, s * s * s, opacity);
+    }
+
+    /**
+     * Converts the packed color to OKLCH components, the polar form of OKLab.
+     * See {@link Colour.OKLCH}. The hue of achromatic colors is zero.
+     *
+     * @param rgba packed color
+     * @param out  array of at least four elements to receive
+     *             lightness, chroma, hue and opacity
+     * @return the {@code out} array
+     */
+    public static double[] toOKLCH(long rgba, double[] out) {
+        toOKLab(rgba, out);
+
+        double a = out[1];
+        double b = out[2];
+        double chroma = Math.sqrt(a * a + b * b);
+        double hue = chroma < ACHROMATIC_CHROMA ? 0 : Math.toDegrees(Math.atan2(b, a));
+
+        out[1] = chroma;
+        out[2] = hue < 0 ? hue + 360.0 : hue;
+        return out;
+    }
+
+    /**
+     * Converts OKLCH components to a packed color. Colors outside the sRGB gamut
+     * are clipped.
+     *
+     * @param lightness perceived lightness from 0.0 to 1.0
+     * @param chroma    chroma, roughly from 0.0 to 0.4
+     * @param hue       hue angle in degrees
+     * @param opacity   opacity value from 0.0 to 1.0
+     * @return packed color
+     */
+    public static long fromOKLCH(double lightness, double chroma, double hue, double opacity) {
+        double h = Math.toRadians(hue);
+        return fromOKLab(lightness, chroma * Math.cos(h), chroma * Math.sin(h), opacity);
+    }
+
+    /**
+     * Performs linear interpolation between two packed colors in the OKLab space.
+     * Unlike {@link #interpolate(long, long, double)}, intermediate colors have
+     * evenly changing perceived lightness and don't turn grayish between
+     * complementary colors. Opacity is interpolated linearly.
+     *
+     * <p>Both colors are converted to OKLab on every call, see the class
+     * description for the cost of the conversion.
+     *
+     * @param start start color
+     * @param end   end color
+     * @param t     progress ratio from 0.0 to 1.0
+     * @return packed color
+     */
+    public static long interpolateOKLab(long start, long end, double t) {
+        if (t == 0.0 || start == end) {
+            return start;
+        }
+        if (t == 1.0) {
+            return end;
+        }
+
+        // OKLab is a linear transform of the non-linear LMS response,
+        // so interpolating the latter gives the same result
+        double r0 = srgbToLinear(start >>> 48);
+        double g0 = srgbToLinear(start >>> 32);
+        double b0 = srgbToLinear(start >>> 16);
+        double r1 = srgbToLinear(end >>> 48);
+        double g1 = srgbToLinear(end >>> 32);
+        double b1 = srgbToLinear(end >>> 16);
+
+        double l0 = Math.cbrt(0.4122214708 * r0 + 0.5363325363 * g0 + 0.0514459929 * b0);
+        double m0 = Math.cbrt(0.2119034982 * r0 + 0.6806995451 * g0 + 0.1073969566 * b0);
+        double s0 = Math.cbrt(0.0883024619 * r0 + 0.2817188376 * g0 + 0.6299787005 * b0);
+        double l1 = Math.cbrt(0.4122214708 * r1 + 0.5363325363 * g1 + 0.0514459929 * b1);
+        double m1 = Math.cbrt(0.2119034982 * r1 + 0.6806995451 * g1 + 0.1073969566 * b1);
+        double s1 = Math.cbrt(0.0883024619 * r1 + 0.2817188376 * g1 + 0.6299787005 * b1);
+
+        double l = l0 + (l1 - l0) * t;
+        double m = m0 + (m1 - m0) * t;
+        double s = s0 + (s1 - s0) * t;
+        double o0 = opacity(start);
+
+        return fromLMS(l * l * l, m * m * m, s * s * s, o0 + (opacity(end) - o0) * t);
+    }
+    //endregion
+
+    //region BULK
+    //*************************************************************************
+
+    /**
+     * Converts 32-bit ARGB colors, as used by {@link javafx.scene.image.PixelFormat},
+     * to packed colors.
+     *
+     * @param argb source colors
+     * @param out  destination array, must be at least as long as the source
+     * @return the {@code out} array
+     */
+    public static long[] fromARGB(int[] argb, long[] out) {
+        checkLength(argb.length, out.length);
+        for (int i = 0; i < argb.length; i++) {
+            out[i] = fromARGB(argb[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Converts packed colors to 32-bit ARGB colors.
+     *
+     * @param colors source colors
+     * @param out    destination array, must be at least as long as the source
+     * @return the {@code out} array
+     */
+    public static int[] toARGB(long[] colors, int[] out) {
+        checkLength(colors.length, out.length);
+        for (int i = 0; i < colors.length; i++) {
+            out[i] = toARGB(colors[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Measures relative luminance of each color. See {@link #luminance(long)}.
+     *
+     * @param colors source colors
+     * @param out    destination array, must be at least as long as the source
+     * @return the {@code out} array
+     */
+    public static double[] luminance(long[] colors, double[] out) {
+        checkLength(colors.length, out.length);
+        for (int i = 0; i < colors.length; i++) {
+            out[i] = luminance(colors[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Calculates the WCAG contrast ratio for every pair of foreground and background colors.
+     * See {@link #contrastRatio(long, long)}.
+     *
+     * <p>Luminance is computed once per color, so the cost is dominated by
+     * {@code foreground.length + background.length} luminance calculations
+     * rather than by the number of pairs. Background luminance values are kept
+     * in a temporary array.
+     *
+     * @param foreground foreground colors
+     * @param background background colors
+     * @param out        destination array in row-major order, i.e. the ratio of
+     *                   {@code foreground[i]} and {@code background[j]} is stored at
+     *                   {@code out[i * background.length + j]}
+     * @return the {@code out} array
+     */
+    public static double[] contrastMatrix(long[] foreground, long[] background, double[] out) {
+        checkLength(Math.multiplyExact(foreground.length, background.length), out.length);
+
+        double[] bgLuminance = luminance(background, new double[background.length]);
+        for (int i = 0; i < foreground.length; i++) {
+            double fg = luminance(foreground[i]);
+            int row = i * bgLuminance.length;
+            for (int j = 0; j < bgLuminance.length; j++) {
+                double bg = bgLuminance[j];
+                out[row + j] = (Math.max(fg, bg) + 0.05) / (Math.min(fg, bg) + 0.05);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Interpolates each pair of start and end colors using the same progress ratio.
+     * See {@link #interpolate(long, long, double)}.
+     *
+     * @param start start colors
+     * @param end   end colors, must be at least as long as the start colors
+     * @param t     progress ratio from 0.0 to 1.0
+     * @param out   destination array, must be at least as long as the start colors
+     * @return the {@code out} array
+     */
+    public static long[] interpolate(long[] start, long[] end, double t, long[] out) {
+        checkLength(start.length, end.length);
+        checkLength(start.length, out.length);
+        for (int i = 0; i < start.length; i++) {
+            out[i] = interpolate(start[i], end[i], t);
+        }
+        return out;
+    }
+
+    /**
+     * Interpolates between two colors for each progress ratio, e.g. to build
+     * a gradient ramp or to map heatmap values to colors.
+     * See {@link #interpolate(long, long, double)}.
+     *
+     * @param start start color
+     * @param end   end color
+     * @param t     progress ratios from 0.0 to 1.0
+     * @param out   destination array, must be at least as long as the ratios
+     * @return the {@code out} array
+     */
+    public static long[] interpolate(long start, long end, double[] t, long[] out) {
+        checkLength(t.length, out.length);
+        for (int i = 0; i < t.length; i++) {
+            out[i] = interpolate(start, end, t[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Blends each color over the same opaque background. See {@link #flatten(long, long)}.
+     *
+     * @param colors     colors to blend
+     * @param background opaque color underneath
+     * @param out        destination array, must be at least as long as the source,
+     *                   can be the source array itself
+     * @return the {@code out} array
+     */
+    public static long[] flatten(long[] colors, long background, long[] out) {
+        checkLength(colors.length, out.length);
+        for (int i = 0; i < colors.length; i++) {
+            out[i] = flatten(colors[i], background);
+        }
+        return out;
+    }
+    //endregion
+
+    //region HELPERS
+    //*************************************************************************
+
+    private static int to8bit(long channel) {
+        return (int) Math.round((channel & 0xFFFFL) * 255.0 / MAX_16BIT_D);
+    }
+
+    private static void checkLength(int required, int actual) {
+        if (actual < required) {
+            throw new IllegalArgumentException(
+                "Array length (%d) must be at least %d".formatted(actual, required)
+            );
+        }
+    }
+
+    private static long fromLMS(double l, double m, double s, double opacity) {
+        return pack(
+            linearToSrgb(4.0767416621 * l - 3.3077115913 * m + 0.2309699292 * s),
+            linearToSrgb(-1.2684380046 * l + 2.6097574011 * m - 0.3413193965 * s),
+            linearToSrgb(-0.0041960863 * l - 0.7034186147 * m + 1.7076147010 * s),
+            opacity
+        );
+    }
+
+    // WCAG 2.0 transfer function, see Colour.convertChannelToLinear()
+    private static double wcagToLinear(long channel) {
+        int value = (int) (channel & 0xFFFFL);
+        return value % 257 == 0
+            ? TransferTables.WCAG_TO_LINEAR[value / 257]
+            : Colour.convertChannelToLinear(value / MAX_16BIT_D);
+    }
+
+    // sRGB transfer function (IEC 61966-2-1)
+    private static double srgbToLinear(long channel) {
+        int value = (int) (channel & 0xFFFFL);
+        return value % 257 == 0
+            ? TransferTables.SRGB_TO_LINEAR[value / 257]
+            : TransferTables.srgbToLinear(value / MAX_16BIT_D);
+    }
+
+    private static double linearToSrgb(double value) {
+        if (!(value > 0.0)) {
+            return 0.0;
+        }
+        if (value >= 1.0) {
+            return 1.0;
+        }
+
+        double pos = value * TransferTables.LINEAR_TO_SRGB_STEPS;
+        int i = (int) pos;
+        double lo = TransferTables.LINEAR_TO_SRGB[i];
+        return lo + (TransferTables.LINEAR_TO_SRGB[i + 1] - lo) * (pos - i);
+    }
+
+    private static long channel(double value) {
+        // NaN is mapped to zero
+        return Math.round(Math.clamp(value, 0.0, 1.0) * MAX_16BIT_D);
+    }
+
+    private static double hsbSaturation(double r, double g, double b) {
+        double cmax = Math.max(r, Math.max(g, b));
+        double cmin = Math.min(r, Math.min(g, b));
+        return (cmax != 0) ? (cmax - cmin) / cmax : 0;
+    }
+
+    private static double hsbHue(double r, double g, double b) {
+        double cmax = Math.max(r, Math.max(g, b));
+        double cmin = Math.min(r, Math.min(g, b));
+        double delta = cmax - cmin;
+        if (cmax == 0 || delta == 0) {
+            return 0;
+        }
+
+        double hue;
+        if (r == cmax) {
+            hue = (g - b) / delta;
+        } else if (g == cmax) {
+            hue = 2.0 + (b - r) / delta;
+        } else {
+            hue = 4.0 + (r - g) / delta;
+        }
+
+        hue *= 60.0;
+        return hue < 0 ? hue + 360.0 : hue;
+    }
+    //endregion
+
+    //*************************************************************************
+
+    /**
+     * Lookup tables for color transfer functions, initialized on first use.
+     *
+     * <p>Most colors come from 8-bit specifications, and their 16-bit channels are
+     * multiples of 257. For those the decoding tables hold exact values, so that
+     * results are identical to calling {@code Math.pow()} and other values fall
+     * back to it. Encoding uses linear interpolation over a uniform table, which
+     * stays well within 16-bit precision.
+     */
+    private static final class TransferTables {
+
+        static final int LINEAR_TO_SRGB_STEPS = 8192;
+
+        static final double[] WCAG_TO_LINEAR = new double[256];
+        static final double[] SRGB_TO_LINEAR = new double[256];
+        static final double[] LINEAR_TO_SRGB = new double[LINEAR_TO_SRGB_STEPS + 1];
+
+        static {
+            for (int i = 0; i < 256; i++) {
+                double value = (i * 257) / MAX_16BIT_D;
+                WCAG_TO_LINEAR[i] = Colour.convertChannelToLinear(value);
+                SRGB_TO_LINEAR[i] = srgbToLinear(value);
+            }
+            for (int i = 0; i <= LINEAR_TO_SRGB_STEPS; i++) {
+                LINEAR_TO_SRGB[i] = linearToSrgb((double) i / LINEAR_TO_SRGB_STEPS);
+            }
+        }
+
+        static double srgbToLinear(double value) {
+            return value <= 0.04045 ? value / 12.92 : Math.pow((value + 0.055) / 1.055, 2.4);
+        }
+
+        static double linearToSrgb(double value) {
+            return value <= 0.0031308 ? value * 12.92 : 1.055 * Math.pow(value, 1.0 / 2.4) - 0.055;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.util;
+
+import javafx.animation.Animation;
+import javafx.animation.Interpolator;
+import javafx.animation.Transition;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Animates a group of nodes with the same effect, starting every next node
+ * with a fixed delay after the previous one.
+ *
+ * <p>Unlike creating a separate {@link javafx.animation.Timeline} for each node,
+ * the whole group is driven by a single animation clock. Every frame only updates
+ * the nodes that are currently in progress, and each of them exactly once when
+ * it starts or finishes, so the cost per frame depends on how many animations
+ * overlap rather than on the group size.
+ *
+ * <p>The per-node progress is eased with the {@link Animations#EASE} interpolator
+ * by default, while the transition itself runs linearly. To cancel the transition,
+ * {@link #stop()} it, which moves all the nodes to the end state of the playback
+ * direction, i.e. the final state when played forward and the initial state when
+ * played backwards. Use {@link #setOnFinished} to be notified when the last node
+ * has finished.
+ *
+ * <pre>{@code
+ * var t = Animations.staggerFadeInUp(cards, Duration.millis(300), Duration.millis(20));
+ * t.setOnFinished(e -> loadMore());
+ * t.playFromStart();
+ * }</pre>
+ */
+public class StaggerTransition extends Transition {
+
+    /**
+     * Applies the animation progress to a node.
+     */
+    @FunctionalInterface
+    public interface Effect {
+
+        /**
+         * Updates the node properties according to the animation progress.
+         *
+         * @param node     the animated node
+         * @param progress the eased progress, 0.0 at the start and 1.0 at the end
+         */
+        void apply(Node node, double progress);
+    }
+
+    protected final Node[] nodes;
+    protected final double durationMillis;
+    protected final double delayMillis;
+    protected final Effect effect;
+    protected final Interpolator nodeInterpolator;
+
+    // the number of nodes that have finished and started, in the order of their delays
+    private int finished;
+    private int started;
+    // whether the nodes that haven't started yet have been moved to the initial state
+    private boolean initialized;
+
+    /**
+     * See {@link #StaggerTransition(List, Duration, Duration, Effect, Interpolator)}.
+     */
+    public StaggerTransition(List<? extends Node> nodes, Duration duration, Duration delay, Effect effect) {
+        this(nodes, duration, delay, effect, Animations.EASE);
+    }
+
+    /**
+     * Creates a new staggered transition.
+     *
+     * @param nodes        The nodes to be animated in the order they start.
+     * @param duration     The animation duration of a single node, zero to switch every node
+     *                     to the final state as soon as it starts.
+     * @param delay        The delay between the start of the two subsequent nodes.
+     * @param effect       The effect to apply.
+     * @param interpolator The interpolator to ease the progress of a single node.
+     */
+    public StaggerTransition(List<? extends Node> nodes,
+                             Duration duration,
+                             Duration delay,
+                             Effect effect,
+                             Interpolator interpolator) {
+        Objects.requireNonNull(nodes, "Nodes cannot be null!");
+        Objects.requireNonNull(duration, "Duration cannot be null!");
+        Objects.requireNonNull(delay, "Delay cannot be null!");
+        Objects.requireNonNull(effect, "Effect cannot be null!");
+        Objects.requireNonNull(interpolator, "Interpolator cannot be null!");
+
+        if (duration.lessThan(Duration.ZERO) || delay.lessThan(Duration.ZERO)) {
+            throw new IllegalArgumentException("Duration and delay cannot be negative!");
+        }
+
+        this.nodes = nodes.toArray(new Node[0]);
+        for (var node : this.nodes) {
+            Objects.requireNonNull(node, "Node cannot be null!");
+        }
+        this.durationMillis = duration.toMillis();
+        this.delayMillis = delay.toMillis();
+        this.effect = effect;
+        this.nodeInterpolator = interpolator;
+
+        setCycleDuration(this.nodes.length > 0
+            ? Duration.millis(durationMillis + delayMillis * (this.nodes.length - 1))
+            : Duration.ZERO
+        );
+        setInterpolator(Interpolator.LINEAR);
+
+        statusProperty().addListener((_, old, val) -> {
+            if (old == Animation.Status.STOPPED && val == Animation.Status.RUNNING) {
+                reset(getRate() < 0);
+            } else if (val == Animation.Status.STOPPED) {
+                if (getRate() < 0) {
+                    moveTo(0, 0, 0);
+                } else {
+                    moveTo(this.nodes.length, this.nodes.length, 1.0);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the animated nodes.
+     */
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(Arrays.asList(nodes));
+    }
+
+    @Override
+    protected void interpolate(double frac) {
+        // the transition can be interpolated or jumped to a time before it's played
+        if (!initialized) {
+            reset(false);
+        }
+
+        if (frac >= 1.0) {
+            moveTo(nodes.length, nodes.length, 1.0);
+            return;
+        }
+
+        double elapsed = frac * getCycleDuration().toMillis();
+        moveTo(countStarted(elapsed - durationMillis), countStarted(elapsed), elapsed);
+    }
+
+    private void moveTo(int newFinished, int newStarted, double elapsed) {
+        for (int i = finished; i < newFinished; i++) {
+            effect.apply(nodes[i], 1.0);
+        }
+        for (int i = newFinished; i < newStarted; i++) {
+            // a node with zero duration jumps to the end state as soon as it starts
+            double t = durationMillis > 0
+                ? Math.clamp((elapsed - i * delayMillis) / durationMillis, 0.0, 1.0)
+                : 1.0;
+            effect.apply(nodes[i], nodeInterpolator.interpolate(0.0, 1.0, t));
+        }
+        // the transition can be played backwards or jumped to an earlier time
+        for (int i = newStarted; i < started; i++) {
+            effect.apply(nodes[i], 0.0);
+        }
+
+        finished = newFinished;
+        started = newStarted;
+    }
+
+    private void reset(boolean reverse) {
+        double progress = reverse ? 1.0 : 0.0;
+        for (var node : nodes) {
+            effect.apply(node, progress);
+        }
+        finished = started = reverse ? nodes.length : 0;
+        initialized = true;
+    }
+
+    // returns the number of nodes that start no later than the specified time
+    private int countStarted(double time) {
+        if (time < 0) {
+            return 0;
+        }
+        if (delayMillis == 0) {
+            return nodes.length;
+        }
+        return (int) Math.min(nodes.length, Math.floor(time / delayMillis) + 1);
+    }
+}
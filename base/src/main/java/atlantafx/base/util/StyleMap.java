@@ -2,15 +2,31 @@
 
 package atlantafx.base.util;
 
+import javafx.application.Platform;
 import javafx.beans.binding.Binding;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.RadialGradient;
 import org.jspecify.annotations.Nullable;
 
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * A helper class for managing inline CSS styles on JavaFX {@link Node} instances.
@@ -24,6 +40,19 @@ import java.util.TreeMap;
  * update to the node's style. Without binding, changes take effect only after an explicit call to
  * {@link #apply()}.
  *
+ * <p>Use {@link #edit(Consumer)} to change several attributes at once, so that a bound
+ * node style is updated only once. Nodes that are updated on every animation frame can
+ * enable {@link #setDeferred(boolean)}, so that {@link #apply()} calls are coalesced
+ * and the node style is set once on the next pulse.
+ *
+ * <p>Attributes are stored in a pair of arrays sorted by key, which is more compact than
+ * a tree map for the typical number of inline properties. The style string is cached until
+ * the next modification, and the node style is only set if the style string has changed.
+ *
+ * <p>Typed setters, such as {@link #setColor(String, Colour)} or {@link #setSize(String, double, String)},
+ * remember the raw value and only format it when it's changed, which makes them suitable for
+ * per-frame updates.
+ *
  * <h2>Example Usage</h2>
  * <pre>{@code
  * // explicit
@@ -36,17 +65,53 @@ import java.util.TreeMap;
  * StyleMap.on(myButton)
  *         .bind()
  *         .set("-fx-font-size", "14px");
+ *
+ * // batch
+ * StyleMap.on(myButton).edit(map -> map
+ *         .set("-fx-translate-x", "10")
+ *         .set("-fx-translate-y", "20")
+ * );
  * }</pre>
  */
 public class StyleMap {
 
     protected static final String PROPERTY_KEY = StyleMap.class.getName() + ".instance";
 
+    // maps with deferred apply() calls, accessed on the FX thread only
+    private static final List<StyleMap> PENDING = new ArrayList<>();
+
+    private static final String[] EMPTY = new String[0];
+    private static final Object COLOR_TAG = new Object();
+
     protected final Node node;
-    protected final Map<String, String> attributes = new TreeMap<>();
+
+    /**
+     * A live read-only view of the CSS attributes sorted by key. Subclasses can modify
+     * attributes via {@link #setAttribute(String, String)} and {@link #removeAttribute(String)}.
+     */
+    protected final Map<String, String> attributes = new AttributesView();
+
+    // attributes sorted by key
+    private String[] keys = EMPTY;
+    private String[] values = EMPTY;
+    private int size = 0;
+
+    // raw values of the typed attributes, the tag is null for plain string values
+    private long[] raws = new long[0];
+    private @Nullable Object[] tags = new Object[0];
+
+    // cached until the next modification
+    private @Nullable String style;
+    private @Nullable Map<String, String> snapshot;
+
     protected final BooleanProperty invalidationProperty = new SimpleBooleanProperty(false);
     protected @Nullable Binding<String> styleBinding;
 
+    private int editDepth = 0;
+    private boolean changedDuringEdit = false;
+    private boolean deferred = false;
+    private boolean applyScheduled = false;
+
     /**
      * Constructs a {@code StyleMap} associated with the specified {@link Node}.
      *
@@ -82,7 +147,8 @@ public class StyleMap {
      * @param key the CSS attribute key
      */
     public @Nullable String get(String key) {
-        return attributes.get(key);
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
     }
 
     /**
@@ -95,12 +161,9 @@ public class StyleMap {
      * @param value the CSS attribute value, or {@code null} to remove the key
      */
     public StyleMap set(String key, @Nullable String value) {
-        if (value == null) {
-            attributes.remove(key);
-        } else {
-            attributes.put(key, value);
+        if (value == null ? delete(key) : put(key, value)) {
+            fireChanged();
         }
-        fireChanged();
         return this;
     }
 
@@ -121,17 +184,7 @@ public class StyleMap {
         for (var entry : styles.entrySet()) {
             String key = entry.getKey();
             String value = entry.getValue();
-
-            if (value == null) {
-                if (attributes.remove(key) != null) {
-                    modified = true;
-                }
-            } else {
-                String previous = attributes.put(key, value);
-                if (!value.equals(previous)) {
-                    modified = true;
-                }
-            }
+            modified |= value == null ? delete(key) : put(key, value);
         }
 
         if (modified) {
@@ -141,6 +194,64 @@ public class StyleMap {
         return this;
     }
 
+    /**
+     * Sets or removes a color CSS attribute. The color is only formatted if it differs from
+     * the color set by the previous call for the same key.
+     *
+     * @param key   the CSS attribute key
+     * @param color the color, or {@code null} to remove the key
+     */
+    public StyleMap setColor(String key, @Nullable Colour color) {
+        if (color == null) {
+            return set(key, null);
+        }
+        if (!isTyped(key, color.rgba, COLOR_TAG)) {
+            putTyped(key, color.toHex(), color.rgba, COLOR_TAG);
+        }
+        return this;
+    }
+
+    /**
+     * Sets or removes a size CSS attribute, e.g. {@code setSize("-fx-border-width", 2, "px")}.
+     * The value is only formatted if it differs from the value set by the previous call
+     * for the same key.
+     *
+     * @param key   the CSS attribute key
+     * @param value the numeric value
+     * @param unit  the size unit, such as {@code "px"}, {@code "em"} or {@code "%"},
+     *              or an empty string for a unitless number
+     * @throws IllegalArgumentException if the value is not a finite number
+     */
+    public StyleMap setSize(String key, double value, String unit) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Size must be a finite number: " + value);
+        }
+
+        long raw = Double.doubleToLongBits(value);
+        if (!isTyped(key, raw, unit)) {
+            putTyped(key, formatNumber(value) + unit, raw, unit);
+        }
+        return this;
+    }
+
+    /**
+     * Sets or removes a paint CSS attribute. Colors and gradients are supported. The paint
+     * is only formatted if it isn't equal to the paint set by the previous call for the same key.
+     *
+     * @param key   the CSS attribute key
+     * @param paint the paint, or {@code null} to remove the key
+     * @throws IllegalArgumentException if the paint can't be represented in CSS
+     */
+    public StyleMap setPaint(String key, @Nullable Paint paint) {
+        if (paint == null) {
+            return set(key, null);
+        }
+        if (!isTyped(key, 0, paint)) {
+            putTyped(key, formatPaint(paint), 0, paint);
+        }
+        return this;
+    }
+
     /**
      * Removes multiple CSS attributes specified by the given keys.
      *
@@ -151,9 +262,7 @@ public class StyleMap {
     public StyleMap remove(Iterable<String> keys) {
         boolean modified = false;
         for (String key : keys) {
-            if (attributes.remove(key) != null) {
-                modified = true;
-            }
+            modified |= delete(key);
         }
 
         if (modified) {
@@ -170,7 +279,7 @@ public class StyleMap {
      * @param keys the CSS attributes to remove
      */
     public StyleMap remove(String... keys) {
-        return remove(java.util.Arrays.asList(keys));
+        return remove(Arrays.asList(keys));
     }
 
     /**
@@ -179,8 +288,7 @@ public class StyleMap {
      * @param key the CSS attribute to remove
      */
     public StyleMap remove(String key) {
-        if (attributes.containsKey(key)) {
-            attributes.remove(key);
+        if (delete(key)) {
             fireChanged();
         }
         return this;
@@ -190,47 +298,129 @@ public class StyleMap {
      * Clears all CSS attributes.
      */
     public StyleMap clear() {
-        attributes.clear();
+        if (size > 0) {
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            Arrays.fill(tags, 0, size, null);
+            size = 0;
+            modified();
+        }
         fireChanged();
         return this;
     }
 
     /**
-     * Returns an unmodifiable copy of the CSS attributes contained in this {@code StyleMap}.
+     * Performs several modifications at once. Changes made by the action are applied
+     * together and {@link #fireChanged()} is triggered only once, when the outermost
+     * edit completes, and only if anything has been modified.
+     *
+     * @param action the action that modifies this {@code StyleMap}
+     */
+    public StyleMap edit(Consumer<StyleMap> action) {
+        editDepth++;
+        try {
+            action.accept(this);
+        } finally {
+            editDepth--;
+            if (editDepth == 0 && changedDuringEdit) {
+                changedDuringEdit = false;
+                fireChanged();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns an unmodifiable copy of the CSS attributes contained in this {@code StyleMap}
+     * sorted by key. The copy is reused until the next modification.
      */
     public Map<String, String> attributes() {
-        return Map.copyOf(attributes);
+        var result = snapshot;
+        if (result == null) {
+            var copy = new LinkedHashMap<String, String>(size * 2);
+            for (int i = 0; i < size; i++) {
+                copy.put(keys[i], values[i]);
+            }
+            result = Collections.unmodifiableMap(copy);
+            snapshot = result;
+        }
+        return result;
+    }
+
+    /**
+     * Sets a CSS attribute without triggering {@link #fireChanged()}, so that subclasses can
+     * make several modifications and notify about them once.
+     *
+     * @param key   the CSS attribute key
+     * @param value the CSS attribute value
+     * @return {@code true} if the attribute has been modified
+     */
+    protected boolean setAttribute(String key, String value) {
+        return put(key, value);
+    }
+
+    /**
+     * Removes a CSS attribute without triggering {@link #fireChanged()}, so that subclasses can
+     * make several modifications and notify about them once.
+     *
+     * @param key the CSS attribute key
+     * @return {@code true} if the attribute has been removed
+     */
+    protected boolean removeAttribute(String key) {
+        return delete(key);
     }
 
     /**
      * Formats the {@code StyleMap} into a valid CSS style string.
+     * The string is cached until the next modification.
      *
      * @return a formatted CSS style string
      */
     @Override
     public String toString() {
-        if (attributes.isEmpty()) {
-            return "";
-        }
-        var sb = new StringBuilder(attributes.size() * 32);
-        for (var entry : attributes.entrySet()) {
-            sb.append(entry.getKey())
-                .append(':')
-                .append(entry.getValue())
-                .append(';');
+        var result = style;
+        if (result == null) {
+            result = format();
+            style = result;
         }
-        return sb.toString();
+        return result;
     }
 
     /**
      * Applies the accumulated CSS styles to the target node via {@link Node#setStyle(String)}.
      *
      * <p>This method has no effect if the {@code StyleMap} is currently bound via {@link #bind()}.
+     * In deferred mode, the styles are applied on the next pulse, see {@link #setDeferred(boolean)}.
      */
     public void apply() {
-        if (!isBound()) {
-            node.setStyle(toString());
+        if (isBound()) {
+            return;
         }
+
+        if (deferred) {
+            scheduleApply();
+        } else {
+            applyStyle();
+        }
+    }
+
+    /**
+     * Sets whether {@link #apply()} calls should be deferred until the next pulse. All calls made
+     * before the pulse result in a single {@link Node#setStyle(String)} call with the latest
+     * styles. Deferred mode must only be used on the JavaFX Application Thread.
+     *
+     * @param deferred {@code true} to defer style updates, {@code false} to apply them immediately
+     */
+    public StyleMap setDeferred(boolean deferred) {
+        this.deferred = deferred;
+        return this;
+    }
+
+    /**
+     * Returns whether {@link #apply()} calls are deferred until the next pulse.
+     */
+    public boolean isDeferred() {
+        return deferred;
     }
 
     /**
@@ -273,6 +463,212 @@ public class StyleMap {
      * node's styles.
      */
     public void fireChanged() {
+        if (editDepth > 0) {
+            changedDuringEdit = true;
+            return;
+        }
         invalidationProperty.set(!invalidationProperty.get());
     }
+
+    // Skips setStyle() if the style hasn't changed, because any style change
+    // makes JavaFX reapply CSS to the node.
+    private void applyStyle() {
+        String value = toString();
+        if (!value.equals(node.getStyle())) {
+            node.setStyle(value);
+        }
+    }
+
+    private String format() {
+        if (size == 0) {
+            return "";
+        }
+
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            length += keys[i].length() + values[i].length() + 2;
+        }
+
+        var sb = new StringBuilder(length);
+        for (int i = 0; i < size; i++) {
+            sb.append(keys[i])
+                .append(':')
+                .append(values[i])
+                .append(';');
+        }
+        return sb.toString();
+    }
+
+    private int indexOf(String key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    // Checks whether the key holds the same typed value.
+    private boolean isTyped(String key, long raw, Object tag) {
+        int index = indexOf(key);
+        return index >= 0 && raws[index] == raw && tag.equals(tags[index]);
+    }
+
+    private void putTyped(String key, String value, long raw, Object tag) {
+        boolean modified = put(key, value);
+        int index = indexOf(key);
+        raws[index] = raw;
+        tags[index] = tag;
+        if (modified) {
+            fireChanged();
+        }
+    }
+
+    // Returns whether the map has been modified.
+    private boolean put(String key, String value) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            tags[index] = null;
+            if (value.equals(values[index])) {
+                return false;
+            }
+            values[index] = value;
+            modified();
+            return true;
+        }
+
+        index = -(index + 1);
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            raws = Arrays.copyOf(raws, capacity);
+            tags = Arrays.copyOf(tags, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        System.arraycopy(raws, index, raws, index + 1, size - index);
+        System.arraycopy(tags, index, tags, index + 1, size - index);
+        keys[index] = key;
+        values[index] = value;
+        tags[index] = null;
+        size++;
+        modified();
+        return true;
+    }
+
+    // Returns whether the map has been modified.
+    private boolean delete(String key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        System.arraycopy(raws, index + 1, raws, index, size - index - 1);
+        System.arraycopy(tags, index + 1, tags, index, size - index - 1);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        tags[size] = null;
+        modified();
+        return true;
+    }
+
+    // CSS doesn't support the scientific notation
+    private static String formatNumber(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    private static String formatPaint(Paint paint) {
+        if (paint instanceof Color c) {
+            return c.getOpacity() < 1.0
+                ? Colour.RGB.toHex(c.getRed(), c.getGreen(), c.getBlue(), c.getOpacity())
+                : Colour.RGB.toHex(c.getRed(), c.getGreen(), c.getBlue());
+        }
+        // gradients are formatted in the CSS syntax
+        if (paint instanceof LinearGradient || paint instanceof RadialGradient) {
+            return paint.toString();
+        }
+        throw new IllegalArgumentException("Unsupported paint type: " + paint.getClass().getName());
+    }
+
+    private void modified() {
+        style = null;
+        snapshot = null;
+    }
+
+    // Queues the map to be applied, all maps are applied by a single runnable.
+    private void scheduleApply() {
+        if (applyScheduled) {
+            return;
+        }
+
+        applyScheduled = true;
+        PENDING.add(this);
+        if (PENDING.size() == 1) {
+            Platform.runLater(StyleMap::applyPending);
+        }
+    }
+
+    private static void applyPending() {
+        var pending = List.copyOf(PENDING);
+        PENDING.clear();
+
+        for (var map : pending) {
+            map.applyScheduled = false;
+            if (!map.isBound()) {
+                map.applyStyle();
+            }
+        }
+    }
+
+    // Reads the attribute arrays directly, so it never goes stale.
+    private final class AttributesView extends AbstractMap<String, String> {
+
+        @Override
+        public int size() {
+            return StyleMap.this.size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String k && indexOf(k) >= 0;
+        }
+
+        @Override
+        public @Nullable String get(Object key) {
+            return key instanceof String k ? StyleMap.this.get(k) : null;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return StyleMap.this.size;
+                }
+
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<>() {
+                        private int index = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < StyleMap.this.size;
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int i = index++;
+                            return new SimpleImmutableEntry<>(keys[i], values[i]);
+                        }
+                    };
+                }
+            };
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ThemeCompilerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("should convert all CSS files in directory")
+    void testConvert() throws IOException {
+        write(dir.resolve("a.css"), ".a { -fx-padding: 1px; }");
+        write(dir.resolve("b.css"), ".b { -fx-padding: 2px; }");
+        write(dir.resolve("c.txt"), "not a stylesheet");
+
+        var converted = new ThemeCompiler().convertToBinary(dir, false);
+
+        assertThat(converted).containsExactly(dir.resolve("a.bss"), dir.resolve("b.bss"));
+        assertThat(dir.resolve("a.bss")).exists();
+        assertThat(dir.resolve("b.bss")).exists();
+        assertThat(dir.resolve(ThemeCompiler.MANIFEST_FILE)).exists();
+    }
+
+    @Test
+    @DisplayName("should skip unchanged files")
+    void testIncremental() throws IOException {
+        write(dir.resolve("a.css"), ".a { -fx-padding: 1px; }");
+        write(dir.resolve("b.css"), ".b { -fx-padding: 2px; }");
+
+        var compiler = new ThemeCompiler();
+        compiler.convertToBinary(dir, false);
+
+        assertThat(compiler.convertToBinary(dir, false)).isEmpty();
+
+        write(dir.resolve("b.css"), ".b { -fx-padding: 3px; }");
+        assertThat(compiler.convertToBinary(dir, false)).containsExactly(dir.resolve("b.bss"));
+
+        Files.delete(dir.resolve("a.bss"));
+        assertThat(compiler.convertToBinary(dir, false)).containsExactly(dir.resolve("a.bss"));
+    }
+
+    @Test
+    @DisplayName("should convert all files when incremental mode is disabled")
+    void testForce() throws IOException {
+        write(dir.resolve("a.css"), ".a { -fx-padding: 1px; }");
+
+        var compiler = new ThemeCompiler(1, false);
+        compiler.convertToBinary(dir, false);
+
+        assertThat(compiler.convertToBinary(dir, false)).containsExactly(dir.resolve("a.bss"));
+    }
+
+    @Test
+    @DisplayName("should scan subdirectories in recursive mode")
+    void testRecursive() throws IOException {
+        Path nested = Files.createDirectories(dir.resolve("nested"));
+        write(dir.resolve("a.css"), ".a { -fx-padding: 1px; }");
+        write(nested.resolve("b.css"), ".b { -fx-padding: 2px; }");
+
+        assertThat(new ThemeCompiler().convertToBinary(dir, false))
+            .containsExactly(dir.resolve("a.bss"));
+        assertThat(new ThemeCompiler().convertToBinary(dir, true))
+            .containsExactly(nested.resolve("b.bss"));
+        assertThat(nested.resolve(ThemeCompiler.MANIFEST_FILE)).exists();
+    }
+
+    @Test
+    @DisplayName("should store manifests in separate directory")
+    void testManifestDir() throws IOException {
+        Path src = Files.createDirectories(dir.resolve("src"));
+        Path nested = Files.createDirectories(src.resolve("nested"));
+        Path manifests = dir.resolve("manifests");
+        write(src.resolve("a.css"), ".a { -fx-padding: 1px; }");
+        write(nested.resolve("b.css"), ".b { -fx-padding: 2px; }");
+
+        var compiler = new ThemeCompiler(1, true, manifests);
+        assertThat(compiler.convertToBinary(src, true))
+            .containsExactly(src.resolve("a.bss"), nested.resolve("b.bss"));
+        assertThat(src.resolve(ThemeCompiler.MANIFEST_FILE)).doesNotExist();
+        assertThat(nested.resolve(ThemeCompiler.MANIFEST_FILE)).doesNotExist();
+        assertThat(manifests.resolve(ThemeCompiler.MANIFEST_FILE)).exists();
+        assertThat(manifests.resolve("nested").resolve(ThemeCompiler.MANIFEST_FILE)).exists();
+
+        assertThat(compiler.convertToBinary(src, true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should handle file names with special characters")
+    void testSpecialFileNames() throws IOException {
+        write(dir.resolve("my theme=1.css"), ".a { -fx-padding: 1px; }");
+
+        var compiler = new ThemeCompiler();
+        assertThat(compiler.convertToBinary(dir, false)).containsExactly(dir.resolve("my theme=1.bss"));
+        assertThat(compiler.convertToBinary(dir, false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should reject invalid arguments")
+    void testInvalidArguments() {
+        assertThatThrownBy(() -> new ThemeCompiler().convertToBinary(dir.resolve("missing"), false))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ThemeCompiler(0, true))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ThemeCompiler.main(new String[] {dir.toString(), "--unknown"}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.writeString(file, content);
+    }
+}
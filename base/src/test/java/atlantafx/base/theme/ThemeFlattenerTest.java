@@ -0,0 +1,114 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThemeFlattenerTest {
+
+    @Test
+    @DisplayName("should inline chained root variables")
+    void testInlineChain() {
+        String css = """
+            .root {
+              -color-base-0: #f6f8fa;
+              -color-bg-subtle: -color-base-0;
+              -fx-background-color: -color-bg-subtle;
+            }
+            .button {
+              -fx-background-color: -color-bg-subtle, derive(-color-base-0, 10%);
+            }
+            """;
+
+        String result = new ThemeFlattener().flatten(css);
+
+        assertThat(result).isEqualTo("""
+            .root {
+              -color-base-0: #f6f8fa;
+              -color-bg-subtle: #f6f8fa;
+              -fx-background-color: #f6f8fa;
+            }
+            .button {
+              -fx-background-color: #f6f8fa, derive(#f6f8fa, 10%);
+            }
+            """);
+    }
+
+    @Test
+    @DisplayName("should keep variables that match keep prefixes")
+    void testKeep() {
+        String css = """
+            .root {
+              -color-accent-5: #0969da;
+              -color-accent-emphasis: -color-accent-5;
+              -color-focus: -color-accent-emphasis;
+            }
+            .button { -fx-border-color: -color-focus; }
+            """;
+
+        String result = new ThemeFlattener().flatten(css);
+
+        assertThat(result).contains("-color-accent-emphasis: -color-accent-5;");
+        assertThat(result).contains("-color-focus: -color-accent-emphasis;");
+        assertThat(result).contains("-fx-border-color: -color-accent-emphasis;");
+    }
+
+    @Test
+    @DisplayName("should not inline variables defined by other rules")
+    void testContextualVariables() {
+        String css = """
+            .root {
+              -color-fg-default: #24292f;
+              -color-button-fg: -color-fg-default;
+            }
+            .button { -fx-text-fill: -color-button-fg; }
+            .button.danger { -color-button-fg: red; }
+            """;
+
+        String result = new ThemeFlattener(List.of()).flatten(css);
+
+        assertThat(result).contains("-color-button-fg: #24292f;");
+        assertThat(result).contains("-fx-text-fill: -color-button-fg;");
+        assertThat(result).contains("-color-button-fg: red;");
+    }
+
+    @Test
+    @DisplayName("should preserve strings and drop comments")
+    void testStringsAndComments() {
+        String css = """
+            /* header; with { braces } */
+            .root { -color-fg: #000; }
+            .icon {
+              -fx-background-image: url("data:image/png;base64,AAA=");
+              -fx-text-fill: -color-fg; /* trailing */
+            }
+            """;
+
+        String result = new ThemeFlattener().flatten(css);
+
+        assertThat(result).doesNotContain("header");
+        assertThat(result).contains("-fx-background-image: url(\"data:image/png;base64,AAA=\");");
+        assertThat(result).contains("-fx-text-fill: #000;");
+    }
+
+    @Test
+    @DisplayName("should leave cyclic references unresolved")
+    void testCycle() {
+        String css = """
+            .root {
+              -color-a: -color-b;
+              -color-b: -color-a;
+            }
+            """;
+
+        String result = new ThemeFlattener().flatten(css);
+
+        assertThat(result).contains("-color-a: -color-");
+        assertThat(result).contains("-color-b: -color-");
+    }
+}
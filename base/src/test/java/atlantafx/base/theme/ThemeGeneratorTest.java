@@ -0,0 +1,93 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import atlantafx.base.util.Colour;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ThemeGeneratorTest {
+
+    @Test
+    @DisplayName("should derive color scales from seed colors")
+    void testScales() {
+        var colors = new ThemeGenerator(Path.of("unused")).resolve(ThemeGenerator.Seeds.primerLight());
+
+        assertThat(colors.get("-color-accent-5").toHex()).isEqualTo("#0969DA");
+        assertThat(colors.get("-color-base-5").toHex()).isEqualTo("#6E7781");
+        for (String scale : new String[] {"base", "accent", "success", "warning", "danger"}) {
+            for (int step = 0; step < 10; step++) {
+                assertThat(colors).containsKey("-color-" + scale + "-" + step);
+            }
+        }
+
+        // tints are lighter and shades are darker than the seed
+        double seed = colors.get("-color-accent-5").getLuminance();
+        assertThat(colors.get("-color-accent-0").getLuminance()).isGreaterThan(seed);
+        assertThat(colors.get("-color-accent-9").getLuminance()).isLessThan(seed);
+    }
+
+    @Test
+    @DisplayName("should derive functional colors according to color mode")
+    void testFunctionalColors() {
+        var generator = new ThemeGenerator(Path.of("unused"));
+
+        var light = generator.resolve(ThemeGenerator.Seeds.primerLight());
+        assertThat(light.get("-color-fg-default")).isEqualTo(light.get("-color-base-9"));
+        assertThat(light.get("-color-success-emphasis")).isEqualTo(light.get("-color-success-4"));
+        assertThat(light.get("-color-accent-muted").getOpacity()).isCloseTo(0.4, within(0.01));
+
+        var dark = generator.resolve(ThemeGenerator.Seeds.primerDark());
+        assertThat(dark.get("-color-fg-default")).isEqualTo(dark.get("-color-base-1"));
+        assertThat(dark.get("-color-bg-default")).isEqualTo(dark.get("-color-base-9"));
+        assertThat(dark.get("-color-accent-subtle").getOpacity()).isCloseTo(0.15, within(0.01));
+    }
+
+    @Test
+    @DisplayName("seeds should not be modified through their colors")
+    void testSeedsImmutable() {
+        var accent = Colour.of("#0969da");
+        var seeds = ThemeGenerator.Seeds.primerLight().withAccent(accent);
+
+        accent.setRGBA(Colour.of("#cf222e").getRGBA());
+        seeds.accent().setRGBA(Colour.of("#cf222e").getRGBA());
+        assertThat(seeds.accent().toHex()).isEqualTo("#0969DA");
+
+        var colors = new ThemeGenerator(Path.of("unused")).resolve(seeds);
+        colors.get("-color-accent-5").setRGBA(Colour.of("#cf222e").getRGBA());
+        assertThat(seeds.accent().toHex()).isEqualTo("#0969DA");
+    }
+
+    @Test
+    @DisplayName("should write stylesheet once and reuse it for the same seeds")
+    void testCache(@TempDir Path dir) throws IOException {
+        var generator = new ThemeGenerator(dir);
+        var seeds = ThemeGenerator.Seeds.primerLight();
+
+        Path file = generator.generate(seeds);
+        assertThat(file).exists().hasParent(dir);
+        assertThat(Files.readString(file))
+            .startsWith(".root {")
+            .contains("-color-accent-5: #0969DA;");
+
+        // the cached file is returned as is
+        Files.writeString(file, "cached");
+        assertThat(generator.generate(ThemeGenerator.Seeds.primerLight())).isEqualTo(file);
+        assertThat(Files.readString(file)).isEqualTo("cached");
+
+        Path other = generator.generate(seeds.withAccent(Colour.of("#8250df")));
+        assertThat(other).isNotEqualTo(file);
+        assertThat(Files.readString(other)).contains("-color-accent-5: #8250DF;");
+        try (var files = Files.list(dir)) {
+            assertThat(files).hasSize(2);
+        }
+    }
+}
@@ -4,20 +4,35 @@ package atlantafx.base.theme;
 
 import atlantafx.base.util.NullSafety;
 import javafx.application.Application;
+import javafx.application.ColorScheme;
 import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
+import javafx.scene.control.skin.ContextMenuSkin;
 import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import static atlantafx.base.theme.ThemeManager.Change;
 import static atlantafx.base.theme.ThemeManager.instance;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @NullMarked
 class ThemeManagerTest {
@@ -184,6 +199,248 @@ class ThemeManagerTest {
                 assertEquals(testTheme2.getUserAgentStylesheet(), Application.getUserAgentStylesheet());
             });
         }
+
+        @Test
+        @DisplayName("activity listener should be notified about theme switch")
+        void testActivityListener() {
+            runFx(() -> {
+                var events = new ArrayList<ThemeManager.ThemeSwitch>();
+                ThemeManager.ActivityListener listener = new ThemeManager.ActivityListener() {
+                    @Override
+                    public void themeSwitched(ThemeManager.ThemeSwitch event) {
+                        events.add(event);
+                    }
+                };
+
+                try {
+                    themeManager.addActivityListener(listener);
+                    themeManager.setTheme(testTheme1);
+                    themeManager.setTheme(testTheme2);
+                } finally {
+                    themeManager.removeActivityListener(listener);
+                }
+                themeManager.setTheme(testTheme1);
+
+                assertEquals(2, events.size());
+                assertEquals(testTheme1, events.get(0).theme());
+                assertEquals(testTheme2, events.get(1).theme());
+                assertEquals(themeManager.getScenes().size(), events.get(1).scenes());
+            });
+        }
+
+        @Test
+        @DisplayName("binary mode should fall back to CSS if BSS is missing")
+        void testBinaryStylesheetFallback() {
+            runFx(() -> {
+                try {
+                    themeManager.setPreferBinaryStylesheet(true);
+                    themeManager.setTheme(testTheme1);
+
+                    assertEquals(testTheme1.getUserAgentStylesheet(), Application.getUserAgentStylesheet());
+
+                    var record = themeManager.getLastThemeSwitch();
+                    assertNotNull(record);
+                    assertEquals(testTheme1, record.theme());
+                    assertFalse(record.binary());
+                } finally {
+                    themeManager.setPreferBinaryStylesheet(false);
+                }
+            });
+        }
+
+        @Test
+        @DisplayName("binary mode should use BSS if resource exists")
+        void testBinaryStylesheetPreferred() {
+            runFx(() -> {
+                var theme = new PrimerLight();
+                boolean bssExists = PrimerLight.class.getResource(theme.getUserAgentStylesheetBSS()) != null;
+
+                try {
+                    themeManager.setPreferBinaryStylesheet(true);
+                    themeManager.setTheme(theme);
+
+                    var expected = bssExists ? theme.getUserAgentStylesheetBSS() : theme.getUserAgentStylesheet();
+                    assertEquals(expected, Application.getUserAgentStylesheet());
+
+                    var record = themeManager.getLastThemeSwitch();
+                    assertNotNull(record);
+                    assertEquals(bssExists, record.binary());
+                    assertFalse(record.totalTime().isNegative());
+
+                    themeManager.setPreferBinaryStylesheet(false);
+                    assertEquals(theme.getUserAgentStylesheet(), Application.getUserAgentStylesheet());
+                } finally {
+                    themeManager.setPreferBinaryStylesheet(false);
+                }
+            });
+        }
+    }
+
+    @Nested
+    class SystemThemeTests {
+
+        @Test
+        @DisplayName("should apply theme matching platform color scheme once both themes are preloaded")
+        void testFollowSystem() throws InterruptedException {
+            var theme = new PrimerLight();
+            assumeTrue(PrimerLight.class.getResource(theme.getUserAgentStylesheet()) != null,
+                "Compiled theme stylesheets are not available");
+
+            var switches = new ArrayList<ThemeManager.ThemeSwitch>();
+            var latch = new CountDownLatch(1);
+            var listener = new ThemeManager.ActivityListener() {
+                @Override
+                public void themeSwitched(ThemeManager.ThemeSwitch event) {
+                    switches.add(event);
+                    latch.countDown();
+                }
+            };
+
+            try {
+                runFx(() -> {
+                    themeManager.setTheme(testTheme1)
+                        .addActivityListener(listener)
+                        .setSystemThemes(theme, new PrimerDark())
+                        .setFollowSystem(true);
+
+                    // the theme is switched when preloading is finished
+                    assertTrue(themeManager.isFollowSystem());
+                    assertEquals(testTheme1, themeManager.getTheme());
+                });
+
+                assertTrue(latch.await(10, TimeUnit.SECONDS), "System theme was not applied");
+
+                runFx(() -> {
+                    boolean dark = Platform.getPreferences().getColorScheme() == ColorScheme.DARK;
+                    assertEquals(1, switches.size());
+                    assertInstanceOf(dark ? PrimerDark.class : PrimerLight.class, themeManager.getTheme());
+                    assertTrue(switches.getFirst().preloaded());
+                });
+            } finally {
+                runFx(() -> themeManager.removeActivityListener(listener)
+                    .setFollowSystem(false)
+                    .clearPreloaded()
+                    .setTheme(testTheme1)
+                );
+            }
+        }
+
+        @Test
+        @DisplayName("should apply only the latest system themes")
+        void testFollowSystemLatestThemes() throws InterruptedException {
+            var switches = new ArrayList<ThemeManager.ThemeSwitch>();
+            var latch = new CountDownLatch(1);
+            var listener = new ThemeManager.ActivityListener() {
+                @Override
+                public void themeSwitched(ThemeManager.ThemeSwitch event) {
+                    switches.add(event);
+                    latch.countDown();
+                }
+            };
+            var light = new TestTheme("Theme3");
+            var dark = new TestTheme("Theme4");
+
+            try {
+                runFx(() -> {
+                    // test themes can't be preloaded, but they should be applied anyway
+                    themeManager.setTheme(testTheme1)
+                        .addActivityListener(listener)
+                        .setSystemThemes(testTheme1, testTheme2)
+                        .setFollowSystem(true)
+                        .setSystemThemes(light, dark);
+                    assertTrue(switches.isEmpty());
+                });
+
+                assertTrue(latch.await(10, TimeUnit.SECONDS), "System theme was not applied");
+                Thread.sleep(200);
+
+                runFx(() -> {
+                    boolean isDark = Platform.getPreferences().getColorScheme() == ColorScheme.DARK;
+                    assertEquals(1, switches.size());
+                    assertEquals(isDark ? dark : light, themeManager.getTheme());
+                });
+            } finally {
+                runFx(() -> themeManager.removeActivityListener(listener)
+                    .setFollowSystem(false)
+                    .setTheme(testTheme1)
+                );
+            }
+        }
+
+        @Test
+        @DisplayName("disabling follow-system mode should cancel the pending theme switch")
+        void testFollowSystemDisabled() throws InterruptedException {
+            try {
+                runFx(() -> themeManager.setTheme(testTheme1)
+                    .setSystemThemes(new TestTheme("Theme3"), new TestTheme("Theme4"))
+                    .setFollowSystem(true)
+                    .setFollowSystem(false)
+                );
+
+                Thread.sleep(200);
+                runFx(() -> assertEquals(testTheme1, themeManager.getTheme()));
+            } finally {
+                runFx(() -> themeManager.setSystemThemes(new PrimerLight(), new PrimerDark()));
+            }
+        }
+    }
+
+    @Nested
+    class PreloadTests {
+
+        @Test
+        @DisplayName("preloaded theme should be applied from cache")
+        void testPreload() throws Exception {
+            var theme = new PrimerDark();
+            assumeTrue(PrimerDark.class.getResource(theme.getUserAgentStylesheet()) != null,
+                "Compiled theme stylesheets are not available");
+
+            try {
+                themeManager.preload(theme).get(10, TimeUnit.SECONDS);
+
+                runFx(() -> {
+                    assertTrue(themeManager.isPreloaded(theme));
+                    themeManager.setTheme(theme);
+
+                    var record = themeManager.getLastThemeSwitch();
+                    assertNotNull(record);
+                    assertTrue(record.preloaded());
+                    assertTrue(record.binary());
+                    assertTrue(Application.getUserAgentStylesheet().startsWith("data:application/octet-stream"));
+                });
+            } finally {
+                runFx(() -> {
+                    themeManager.clearPreloaded();
+                    themeManager.setTheme(testTheme1);
+                });
+            }
+        }
+
+        @Test
+        @DisplayName("should fail to preload theme with missing stylesheet")
+        void testPreloadMissing() {
+            assertThrows(ExecutionException.class, () -> themeManager.preload(testTheme1).get(10, TimeUnit.SECONDS));
+            runFx(() -> assertFalse(themeManager.isPreloaded(testTheme1)));
+        }
+
+        @Test
+        @DisplayName("should evict preloaded stylesheets exceeding cache size")
+        void testPreloadEviction() throws Exception {
+            var theme = new PrimerLight();
+            assumeTrue(PrimerLight.class.getResource(theme.getUserAgentStylesheet()) != null,
+                "Compiled theme stylesheets are not available");
+
+            try {
+                themeManager.preload(theme).get(10, TimeUnit.SECONDS);
+                runFx(() -> {
+                    assertTrue(themeManager.isPreloaded(theme));
+                    themeManager.setPreloadCacheSize(0);
+                    assertFalse(themeManager.isPreloaded(theme));
+                });
+            } finally {
+                runFx(() -> themeManager.setPreloadCacheSize(16 * 1024 * 1024));
+            }
+        }
     }
 
     @Nested
@@ -207,6 +464,29 @@ class ThemeManagerTest {
             });
         }
 
+        @Test
+        @DisplayName("should register built-in options on the first change")
+        void testBuiltInOptions() {
+            runFx(() -> {
+                themeManager.unregister(ThemeOptions.effects());
+
+                assertFalse(themeManager.supports(ThemeOptions.EFFECTS));
+                assertEquals(Boolean.TRUE, themeManager.getOption(ThemeOptions.EFFECTS));
+
+                themeManager.resetOption(ThemeOptions.EFFECTS);
+                assertFalse(themeManager.supports(ThemeOptions.EFFECTS));
+
+                try {
+                    themeManager.setOption(ThemeOptions.EFFECTS, false);
+                    assertTrue(themeManager.supports(ThemeOptions.EFFECTS));
+                    assertEquals(Boolean.FALSE, themeManager.getOption(ThemeOptions.EFFECTS));
+                } finally {
+                    themeManager.resetOption(ThemeOptions.EFFECTS);
+                    themeManager.unregister(ThemeOptions.effects());
+                }
+            });
+        }
+
         @Test
         @DisplayName("should throw on duplicate registration")
         void testRegisterDuplicate() {
@@ -418,6 +698,260 @@ class ThemeManagerTest {
             });
         }
 
+        @Test
+        @DisplayName("batch should expose new values immediately and end the transaction")
+        void testBatch() {
+            runFx(() -> {
+                var strKey = new ThemeOption.Key<>("test.batch.str", String.class);
+                var intKey = new ThemeOption.Key<>("test.batch.int", Integer.class);
+
+                var opt1 = ThemeOption.of(strKey, "def1", _ -> { });
+                var opt2 = ThemeOption.of(intKey, 100, _ -> { });
+
+                try {
+                    themeManager.register(opt1).register(opt2);
+
+                    themeManager.batch(() -> {
+                        assertTrue(themeManager.isUpdating());
+                        themeManager.setOption(strKey, "changed");
+                        themeManager.setOption(intKey, 999);
+                        assertEquals("changed", themeManager.getOption(strKey));
+                    });
+
+                    assertFalse(themeManager.isUpdating());
+                    assertEquals("changed", themeManager.getOption(strKey));
+                    assertEquals(999, themeManager.getOption(intKey));
+                } finally {
+                    themeManager.unregister(opt1).unregister(opt2);
+                }
+            });
+        }
+
+        @Test
+        @DisplayName("should apply option changes immediately outside of transaction")
+        void testApplyImmediately() {
+            runFx(() -> {
+                var key = new ThemeOption.Key<>("test.apply.immediately", String.class);
+                var option = ThemeOption.of(key, "default", _ -> { });
+                var updates = new ArrayList<ThemeManager.OptionUpdate>();
+                var listener = new ThemeManager.ActivityListener() {
+                    @Override
+                    public void optionsApplied(ThemeManager.OptionUpdate event) {
+                        updates.add(event);
+                    }
+                };
+
+                try {
+                    themeManager.register(option).addActivityListener(listener);
+
+                    themeManager.setOption(key, "first");
+                    assertEquals(1, updates.size());
+                    themeManager.setOption(key, "second");
+                    assertEquals(2, updates.size());
+                    themeManager.resetOption(key);
+                    assertEquals(3, updates.size());
+                    assertEquals(1, updates.getLast().options());
+                } finally {
+                    themeManager.removeActivityListener(listener).unregister(option);
+                }
+            });
+        }
+
+        @Test
+        @DisplayName("should coalesce option changes to the next pulse in coalescing mode")
+        void testCoalesceToPulse() {
+            var key = new ThemeOption.Key<>("test.coalesce.pulse", String.class);
+            var option = ThemeOption.of(key, "default", _ -> { });
+            var updates = new ArrayList<ThemeManager.OptionUpdate>();
+            var listener = new ThemeManager.ActivityListener() {
+                @Override
+                public void optionsApplied(ThemeManager.OptionUpdate event) {
+                    updates.add(event);
+                }
+            };
+
+            try {
+                runFx(() -> {
+                    themeManager.register(option).addActivityListener(listener).setCoalesceChanges(true);
+
+                    themeManager.setOption(key, "first");
+                    themeManager.setOption(key, "second");
+                    assertTrue(updates.isEmpty());
+                    assertEquals("second", themeManager.getOption(key));
+                });
+
+                // the pending changes are applied by the runnable queued before this one
+                runFx(() -> {
+                    assertEquals(1, updates.size());
+                    assertEquals(1, updates.getFirst().options());
+
+                    // disabling the mode applies pending changes immediately
+                    themeManager.setOption(key, "third");
+                    themeManager.setCoalesceChanges(false);
+                    assertEquals(2, updates.size());
+                });
+            } finally {
+                runFx(() -> themeManager
+                    .setCoalesceChanges(false)
+                    .removeActivityListener(listener)
+                    .unregister(option)
+                );
+            }
+        }
+
+        @Test
+        @DisplayName("should apply option changes made inside transaction once when it ends")
+        void testCoalesceInTransaction() {
+            runFx(() -> {
+                var strKey = new ThemeOption.Key<>("test.coalesce.str", String.class);
+                var intKey = new ThemeOption.Key<>("test.coalesce.int", Integer.class);
+                var opt1 = ThemeOption.of(strKey, "def1", _ -> { });
+                var opt2 = ThemeOption.of(intKey, 100, _ -> { });
+                var updates = new ArrayList<ThemeManager.OptionUpdate>();
+                var listener = new ThemeManager.ActivityListener() {
+                    @Override
+                    public void optionsApplied(ThemeManager.OptionUpdate event) {
+                        updates.add(event);
+                    }
+                };
+
+                try {
+                    themeManager.register(opt1).register(opt2).addActivityListener(listener);
+
+                    themeManager.beginUpdate();
+                    themeManager.setOption(strKey, "a");
+                    themeManager.setOption(strKey, "b");
+                    themeManager.batch(() -> themeManager.setOption(intKey, 1));
+                    themeManager.setOption(intKey, 2);
+                    assertTrue(updates.isEmpty());
+                    themeManager.endUpdate();
+
+                    assertEquals(1, updates.size());
+                    assertEquals(2, updates.getFirst().options());
+                } finally {
+                    themeManager.removeActivityListener(listener).unregister(opt1).unregister(opt2);
+                }
+            });
+        }
+
+        @Test
+        @DisplayName("should apply only stale options when hidden window is shown in deferred mode")
+        void testDeferHiddenWindows() {
+            runFx(() -> {
+                var strKey = new ThemeOption.Key<>("test.defer.str", String.class);
+                var intKey = new ThemeOption.Key<>("test.defer.int", Integer.class);
+                var stage = new Stage();
+                stage.setScene(new Scene(new Pane()));
+                var applied = new ArrayList<String>();
+                var opt1 = ThemeOption.of(strKey, "def1", change -> {
+                    if (change.scene() == stage.getScene()) {
+                        applied.add(strKey.id());
+                    }
+                });
+                var opt2 = ThemeOption.of(intKey, 100, change -> {
+                    if (change.scene() == stage.getScene()) {
+                        applied.add(intKey.id());
+                    }
+                });
+
+                try {
+                    themeManager.register(opt1).register(opt2).setDeferHiddenWindows(true);
+
+                    stage.show();
+                    assertEquals(2, applied.size());
+                    assertEquals(Set.of(strKey.id(), intKey.id()), Set.copyOf(applied));
+
+                    // hidden windows are skipped
+                    stage.hide();
+                    applied.clear();
+                    themeManager.setOption(strKey, "changed");
+                    assertTrue(applied.isEmpty());
+
+                    // only the changed option is applied on show
+                    stage.show();
+                    assertEquals(List.of(strKey.id()), applied);
+
+                    // nothing is stale
+                    stage.hide();
+                    applied.clear();
+                    stage.show();
+                    assertTrue(applied.isEmpty());
+                } finally {
+                    stage.hide();
+                    themeManager.setDeferHiddenWindows(false).unregister(opt1).unregister(opt2);
+                }
+            });
+        }
+
+        @Test
+        @DisplayName("should apply all options when hidden window is shown if deferred mode is disabled")
+        void testDeferHiddenWindowsDisabled() {
+            runFx(() -> {
+                var strKey = new ThemeOption.Key<>("test.defer.disabled.str", String.class);
+                var intKey = new ThemeOption.Key<>("test.defer.disabled.int", Integer.class);
+                var stage = new Stage();
+                stage.setScene(new Scene(new Pane()));
+                var applied = new ArrayList<String>();
+                var opt1 = ThemeOption.of(strKey, "def1", change -> {
+                    if (change.scene() == stage.getScene()) {
+                        applied.add(strKey.id());
+                    }
+                });
+                var opt2 = ThemeOption.of(intKey, 100, change -> {
+                    if (change.scene() == stage.getScene()) {
+                        applied.add(intKey.id());
+                    }
+                });
+
+                try {
+                    themeManager.register(opt1).register(opt2).setDeferHiddenWindows(true);
+                    stage.show();
+                    stage.hide();
+                    themeManager.setDeferHiddenWindows(false);
+
+                    // nothing is stale, but all options are applied anyway
+                    applied.clear();
+                    stage.show();
+                    assertEquals(2, applied.size());
+                    assertEquals(Set.of(strKey.id(), intKey.id()), Set.copyOf(applied));
+
+                    // showing windows are updated immediately in both modes
+                    applied.clear();
+                    themeManager.setOption(intKey, 1);
+                    assertEquals(List.of(intKey.id()), applied);
+                } finally {
+                    stage.hide();
+                    themeManager.unregister(opt1).unregister(opt2);
+                }
+            });
+        }
+
+        @Test
+        @DisplayName("nested transactions should end with the outermost one")
+        void testNestedTransactions() {
+            runFx(() -> {
+                themeManager.beginUpdate();
+                themeManager.beginUpdate();
+                themeManager.endUpdate();
+                assertTrue(themeManager.isUpdating());
+                themeManager.endUpdate();
+                assertFalse(themeManager.isUpdating());
+
+                assertThrows(IllegalStateException.class, () -> themeManager.endUpdate());
+            });
+        }
+
+        @Test
+        @DisplayName("batch should end the transaction if the action throws")
+        void testBatchException() {
+            runFx(() -> {
+                assertThrows(IllegalArgumentException.class, () -> themeManager.batch(() -> {
+                    throw new IllegalArgumentException();
+                }));
+                assertFalse(themeManager.isUpdating());
+            });
+        }
+
         @Test
         @DisplayName("resetOptions on empty registry should not throw")
         void testResetOptionsWhenEmpty() {
@@ -425,6 +959,202 @@ class ThemeManagerTest {
         }
     }
 
+    @Nested
+    class ModuleTests {
+
+        final Theme splitTheme = Theme.of("Split", "/atlantafx/base/theme/split-test.css", false);
+
+        @Test
+        @DisplayName("should not create loader for theme without modules")
+        void testNotSplit() {
+            assertNull(ModuleLoader.create(testTheme1, ThemeModule.DEFAULTS));
+        }
+
+        @Test
+        @DisplayName("should load modules of components found in scene")
+        void testLoadModules() {
+            runFx(() -> {
+                var loader = ModuleLoader.create(splitTheme, ThemeModule.DEFAULTS);
+                assertNotNull(loader);
+                assertEquals("/atlantafx/base/theme/split-test/core.css", loader.getCoreStylesheet());
+
+                var root = new Pane();
+                var scene = new Scene(root);
+                Runnable listener = () -> { };
+
+                assertFalse(loader.refresh(scene, ThemeModule.DEFAULTS, listener));
+                assertNull(scene.getUserAgentStylesheet());
+
+                var tabPane = new Pane();
+                tabPane.getStyleClass().add("tab-pane");
+                root.getChildren().add(new Pane(tabPane));
+
+                assertTrue(loader.refresh(scene, ThemeModule.DEFAULTS, listener));
+                assertEquals(Set.of("tab-pane"), ModuleLoader.getLoaded(scene));
+                assertFalse(loader.isComplete(scene));
+
+                String stylesheet = scene.getUserAgentStylesheet();
+                assertNotNull(stylesheet);
+                assertTrue(stylesheet.contains(".tab-pane"));
+                assertFalse(stylesheet.contains(".chart"));
+
+                // modules are retained after components are removed
+                root.getChildren().clear();
+                assertFalse(loader.refresh(scene, ThemeModule.DEFAULTS, listener));
+
+                ModuleLoader.detach(scene);
+                assertNull(scene.getUserAgentStylesheet());
+                assertTrue(ModuleLoader.getLoaded(scene).isEmpty());
+            });
+        }
+
+        @Test
+        @DisplayName("should keep source rule order in combined stylesheet")
+        void testRuleOrder() {
+            runFx(() -> {
+                var loader = ModuleLoader.create(splitTheme, ThemeModule.DEFAULTS);
+                assertNotNull(loader);
+
+                var tabPane = new Pane();
+                tabPane.getStyleClass().add("tab-pane");
+                var scene = new Scene(new Pane(tabPane));
+
+                assertTrue(loader.refresh(scene, ThemeModule.DEFAULTS, () -> { }));
+                String stylesheet = scene.getUserAgentStylesheet();
+                assertNotNull(stylesheet);
+
+                // the core rule follows the module rule in the source stylesheet
+                int moduleRule = stylesheet.indexOf(".tab-pane {");
+                int coreRule = stylesheet.indexOf(".tab-pane, .button {");
+                assertTrue(stylesheet.indexOf(".button {") < moduleRule);
+                assertTrue(moduleRule >= 0 && moduleRule < coreRule);
+                assertFalse(stylesheet.contains(ThemeSplitter.ORDER_MARKER));
+            });
+        }
+
+        @Test
+        @DisplayName("should load modules of popup content")
+        void testPopupScene() {
+            runFx(() -> {
+                var loader = ModuleLoader.create(splitTheme, ThemeModule.DEFAULTS);
+                assertNotNull(loader);
+                Runnable listener = () -> { };
+
+                var ownerRoot = new Pane(new Button("Menu"));
+                var ownerScene = new Scene(ownerRoot);
+                assertFalse(loader.refresh(ownerScene, ThemeModule.DEFAULTS, listener));
+                assertNull(ownerScene.getUserAgentStylesheet());
+
+                var tabPane = new Pane();
+                tabPane.getStyleClass().add("tab-pane");
+                var menu = new ContextMenu(new CustomMenuItem(tabPane));
+                menu.setSkin(new ContextMenuSkin(menu));
+                Scene popupScene = menu.getScene();
+
+                assertTrue(loader.refresh(popupScene, ThemeModule.DEFAULTS, listener));
+                assertEquals(Set.of("tab-pane"), ModuleLoader.getLoaded(popupScene));
+
+                // the owner scene loads another module, and the popup copies
+                // the owner stylesheet when it's shown again
+                var chart = new Pane();
+                chart.getStyleClass().add("chart");
+                ownerRoot.getChildren().add(chart);
+                assertTrue(loader.refresh(ownerScene, ThemeModule.DEFAULTS, listener));
+                popupScene.setUserAgentStylesheet(ownerScene.getUserAgentStylesheet());
+
+                assertTrue(loader.refresh(popupScene, ThemeModule.DEFAULTS, listener));
+                assertEquals(Set.of("chart", "tab-pane"), ModuleLoader.getLoaded(popupScene));
+                assertNotEquals(ownerScene.getUserAgentStylesheet(), popupScene.getUserAgentStylesheet());
+            });
+        }
+
+        @Test
+        @DisplayName("should not override custom scene user-agent stylesheet")
+        void testCustomSceneStylesheet() {
+            runFx(() -> {
+                var loader = ModuleLoader.create(splitTheme, ThemeModule.DEFAULTS);
+                assertNotNull(loader);
+
+                var chart = new Pane();
+                chart.getStyleClass().add("chart");
+                var scene = new Scene(new Pane(chart));
+                scene.setUserAgentStylesheet("custom.css");
+
+                assertFalse(loader.refresh(scene, ThemeModule.DEFAULTS, () -> { }));
+                assertEquals("custom.css", scene.getUserAgentStylesheet());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw on duplicate module registration")
+        void testRegisterDuplicateModule() {
+            runFx(() -> assertThrows(
+                IllegalStateException.class,
+                () -> themeManager.registerModule(ThemeModule.of("chart", "chart"))
+            ));
+        }
+    }
+
+    @Nested
+    class PaletteTests {
+
+        @Test
+        @DisplayName("should only replace palette between themes with the same stylesheet")
+        void testPaletteSwitch() {
+            runFx(() -> {
+                var light = Theme.withPalette(testTheme1, "Light", "light-palette.css");
+                var dark = Theme.withPalette(testTheme1, "Dark", "dark-palette.css");
+
+                try {
+                    themeManager.setTheme(testTheme2);
+                    themeManager.setTheme(light);
+
+                    var record = themeManager.getLastThemeSwitch();
+                    assertNotNull(record);
+                    assertFalse(record.paletteOnly());
+                    assertEquals(testTheme1.getUserAgentStylesheet(), Application.getUserAgentStylesheet());
+
+                    themeManager.setTheme(dark);
+
+                    record = themeManager.getLastThemeSwitch();
+                    assertNotNull(record);
+                    assertTrue(record.paletteOnly());
+                    assertEquals(dark, record.theme());
+                    assertEquals(testTheme1.getUserAgentStylesheet(), Application.getUserAgentStylesheet());
+
+                    // no palette, but the same stylesheet
+                    themeManager.setTheme(testTheme1);
+
+                    record = themeManager.getLastThemeSwitch();
+                    assertNotNull(record);
+                    assertTrue(record.paletteOnly());
+                } finally {
+                    themeManager.setTheme(testTheme1);
+                }
+            });
+        }
+
+        @Test
+        @DisplayName("should keep palette stylesheet below scene stylesheets")
+        void testApplyPalette() {
+            runFx(() -> {
+                var scene = new Scene(new Pane());
+                scene.getStylesheets().add("app.css");
+
+                assertTrue(ThemeManager.applyPalette(scene, "light-palette.css"));
+                assertEquals(List.of("light-palette.css", "app.css"), scene.getStylesheets());
+                assertFalse(ThemeManager.applyPalette(scene, "light-palette.css"));
+
+                assertTrue(ThemeManager.applyPalette(scene, "dark-palette.css"));
+                assertEquals(List.of("dark-palette.css", "app.css"), scene.getStylesheets());
+
+                assertTrue(ThemeManager.applyPalette(scene, null));
+                assertEquals(List.of("app.css"), scene.getStylesheets());
+                assertFalse(ThemeManager.applyPalette(scene, null));
+            });
+        }
+    }
+
     @Nested
     class ChangeTests {
 
@@ -478,5 +1208,170 @@ class ThemeManagerTest {
                 assertTrue(root.getStylesheets().isEmpty());
             });
         }
+
+        @Test
+        @DisplayName("should not modify stylesheets when the same value is re-applied")
+        void testReapplySameValue() {
+            runFx(() -> {
+                Pane root = new Pane();
+                Scene scene = new Scene(root);
+                var changes = new int[1];
+                root.getStylesheets().addListener((ListChangeListener<String>) _ -> changes[0]++);
+
+                Change<String> change = new Change<>(testTheme1, "16px", scene);
+                change.applyStylesheet("font.size", root, val -> ".root { -fx-font-size: " + val + "; }");
+                change.applyStylesheet("font.size", root, val -> ".root { -fx-font-size: " + val + "; }");
+
+                assertEquals(1, changes[0]);
+                assertEquals(1, root.getStylesheets().size());
+            });
+        }
+
+        @Test
+        @DisplayName("merged stylesheet should produce the same CSS as per-option stylesheets")
+        void testMergedStylesheet() {
+            runFx(() -> {
+                Function<String, String> fontSize = val -> ".root { -fx-font-size: " + val + "; }";
+                Function<String, String> fontFamily = val -> ".root { -fx-font-family: " + val + "; }";
+
+                // options are applied out of id order, the merged stylesheet must keep
+                // the same order and thus the same precedence as separate stylesheets
+                Pane separateRoot = new Pane();
+                Scene separateScene = new Scene(separateRoot);
+                new Change<>(testTheme1, "16px", separateScene)
+                    .applyStylesheet("font.size", separateRoot, fontSize);
+                new Change<>(testTheme1, "Inter", separateScene)
+                    .applyStylesheet("font.family", separateRoot, fontFamily);
+
+                var expected = String.join("\n", decode(separateRoot.getStylesheets().get(0)),
+                    decode(separateRoot.getStylesheets().get(1))) + "\n/*options*/";
+                assertTrue(expected.startsWith(fontSize.apply("16px")));
+
+                try {
+                    themeManager.setMergeStylesheets(true);
+
+                    Pane mergedRoot = new Pane();
+                    Scene mergedScene = new Scene(mergedRoot);
+                    var changes = new int[1];
+                    mergedRoot.getStylesheets().addListener((ListChangeListener<String>) _ -> changes[0]++);
+
+                    themeManager.runHandlers(() -> {
+                        new Change<>(testTheme1, "16px", mergedScene)
+                            .applyStylesheet("font.size", mergedRoot, fontSize);
+                        new Change<>(testTheme1, "Inter", mergedScene)
+                            .applyStylesheet("font.family", mergedRoot, fontFamily);
+                    });
+
+                    assertEquals(1, mergedRoot.getStylesheets().size());
+                    assertEquals(expected, decode(mergedRoot.getStylesheets().getFirst()));
+
+                    // same value should not rebuild the stylesheet
+                    int count = changes[0];
+                    themeManager.runHandlers(() -> new Change<>(testTheme1, "16px", mergedScene)
+                        .applyStylesheet("font.size", mergedRoot, fontSize));
+                    assertEquals(count, changes[0]);
+
+                    // updated fragment should keep its place
+                    themeManager.runHandlers(() -> new Change<>(testTheme1, "18px", mergedScene)
+                        .applyStylesheet("font.size", mergedRoot, fontSize));
+                    assertTrue(decode(mergedRoot.getStylesheets().getFirst()).startsWith(fontSize.apply("18px")));
+
+                    themeManager.runHandlers(() -> {
+                        new Change<String>(testTheme1, null, mergedScene)
+                            .applyStylesheet("font.size", mergedRoot, fontSize);
+                        new Change<String>(testTheme1, null, mergedScene)
+                            .applyStylesheet("font.family", mergedRoot, fontFamily);
+                    });
+                    assertTrue(mergedRoot.getStylesheets().isEmpty());
+
+                    // a change applied on its own doesn't depend on the manager state
+                    new Change<>(testTheme1, "16px", mergedScene)
+                        .applyStylesheet("font.size", mergedRoot, fontSize);
+                    assertTrue(mergedRoot.getStylesheets().getFirst().endsWith("/*option:font.size*/"));
+                } finally {
+                    themeManager.setMergeStylesheets(false);
+                }
+            });
+        }
+
+        private static String decode(String dataUri) {
+            return new String(Styles.decode(dataUri), StandardCharsets.UTF_8);
+        }
+
+        @Test
+        @DisplayName("should share cached stylesheets between instances of the same supplier only")
+        void testCacheKeyedBySupplier() {
+            runFx(() -> {
+                Pane root = new Pane();
+                Scene scene = new Scene(root);
+                var change = new Change<>(testTheme1, "16px", scene);
+
+                change.applyStylesheet("cache.supplier", root, val -> ".root { -fx-font-size: " + val + "; }");
+                assertTrue(decode(root.getStylesheets().getFirst()).contains("-fx-font-size: 16px"));
+
+                change.applyStylesheet("cache.supplier", root, val -> ".label { -fx-font-size: " + val + "; }");
+                assertEquals(1, root.getStylesheets().size());
+                assertTrue(decode(root.getStylesheets().getFirst()).contains(".label"));
+
+                // instances of the same lambda share the cache and don't retain captured state
+                var calls = new int[1];
+                for (int i = 0; i < 3; i++) {
+                    change.applyStylesheet("cache.supplier", root, val -> {
+                        calls[0]++;
+                        return ".button { -fx-font-size: " + val + "; }";
+                    });
+                }
+                assertEquals(1, calls[0]);
+                assertTrue(decode(root.getStylesheets().getFirst()).startsWith(".button"));
+            });
+        }
+
+        @Test
+        @DisplayName("should find option stylesheet after the list was modified externally")
+        void testStylesheetMovedExternally() {
+            runFx(() -> {
+                Pane root = new Pane();
+                Scene scene = new Scene(root);
+
+                new Change<>(testTheme1, "16px", scene)
+                    .applyStylesheet("font.size", root, val -> ".root { -fx-font-size: " + val + "; }");
+                root.getStylesheets().addFirst("custom.css");
+
+                new Change<>(testTheme1, "18px", scene)
+                    .applyStylesheet("font.size", root, val -> ".root { -fx-font-size: " + val + "; }");
+
+                assertEquals(2, root.getStylesheets().size());
+                assertEquals("custom.css", root.getStylesheets().getFirst());
+                assertTrue(root.getStylesheets().get(1).contains("18px"));
+
+                new Change<String>(testTheme1, null, scene)
+                    .applyStylesheet("font.size", root, val -> ".root { -fx-font-size: " + val + "; }");
+                assertEquals(List.of("custom.css"), root.getStylesheets());
+            });
+        }
+
+        @Test
+        @DisplayName("effects option should add stylesheet only when effects are disabled")
+        void testEffectsOption() {
+            runFx(() -> {
+                Pane root = new Pane();
+                Scene scene = new Scene(root);
+                ThemeOption<Boolean> option = ThemeOptions.effects();
+
+                option.apply(new Change<>(testTheme1, true, scene));
+                assertTrue(root.getStylesheets().isEmpty());
+
+                option.apply(new Change<>(testTheme1, false, scene));
+                assertEquals(1, root.getStylesheets().size());
+                assertTrue(root.getStylesheets().getFirst().endsWith("/*option:" + ThemeOptions.EFFECTS.id() + "*/"));
+
+                option.apply(new Change<>(testTheme1, true, scene));
+                assertTrue(root.getStylesheets().isEmpty());
+
+                option.apply(new Change<>(testTheme1, false, scene));
+                option.apply(new Change<>(Theme.noEffects(testTheme1), false, scene));
+                assertTrue(root.getStylesheets().isEmpty());
+            });
+        }
     }
 }
\ No newline at end of file
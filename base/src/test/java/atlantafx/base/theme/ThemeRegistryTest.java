@@ -0,0 +1,54 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ServiceLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThemeRegistryTest {
+
+    @Test
+    @DisplayName("should index themes by name and color mode without instantiating them")
+    void testIndexWithoutInstantiation() {
+        var registry = ThemeRegistry.load();
+
+        assertThat(registry.getNames()).containsExactly(
+            "PrimerLight", "PrimerDark",
+            "NordLight", "NordDark",
+            "CupertinoLight", "CupertinoDark",
+            "Dracula"
+        );
+        assertThat(registry.getNames(true)).containsExactly("PrimerDark", "NordDark", "CupertinoDark", "Dracula");
+        assertThat(registry.getNames(false)).containsExactly("PrimerLight", "NordLight", "CupertinoLight");
+        assertThat(registry.contains("nordlight")).isTrue();
+        assertThat(registry.getInstantiated()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should instantiate only the themes that have been looked up")
+    void testFind() {
+        var registry = ThemeRegistry.load();
+
+        Theme theme = registry.find(" norddark ");
+        assertThat(theme).isInstanceOf(NordDark.class);
+        assertThat(registry.find("NordDark")).isSameAs(theme);
+        assertThat(registry.find("Unknown")).isNull();
+
+        assertThat(registry.findFirst(true)).isInstanceOf(PrimerDark.class);
+        assertThat(registry.getInstantiated()).containsExactly("PrimerDark", "NordDark");
+    }
+
+    @Test
+    @DisplayName("theme annotations should match theme instances")
+    void testThemeInfoMatchesInstances() {
+        ServiceLoader.load(Theme.class).stream().forEach(provider -> {
+            var info = provider.type().getAnnotation(ThemeInfo.class);
+            assertThat(info).as(provider.type().getSimpleName()).isNotNull();
+            assertThat(info.darkMode()).isEqualTo(provider.get().isDarkMode());
+        });
+    }
+}
@@ -0,0 +1,115 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.theme;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThemeSplitterTest {
+
+    static final String CSS = """
+        .root { -color-fg-default: #24292f; }
+        .button, .toggle-button { -fx-text-fill: -color-fg-default; }
+        .tab-pane > .tab-header-area { -fx-padding: 0; }
+        .chart-legend, .chart { -fx-padding: 10px; }
+        .default-color0.chart-bar { -fx-bar-fill: red; }
+        .tab-pane, .button { -fx-border-color: red; }
+        .tab-pane:focused { -fx-border-color: blue; }
+        """;
+
+    @Test
+    @DisplayName("should move rules owned by modules to module stylesheets")
+    void testSplit() {
+        var result = new ThemeSplitter().split(CSS);
+
+        assertThat(result).isNotNull();
+        assertThat(result.stylesheets().keySet()).containsExactly(ThemeSplitter.CORE, "chart", "tab-pane");
+
+        // mixed selectors stay in core
+        assertThat(result.stylesheets().get(ThemeSplitter.CORE))
+            .contains(".root", ".button, .toggle-button", ".tab-pane, .button")
+            .doesNotContain(".chart", ".tab-pane:focused");
+        assertThat(result.stylesheets().get("tab-pane"))
+            .contains(".tab-pane > .tab-header-area", ".tab-pane:focused");
+        assertThat(result.stylesheets().get("chart"))
+            .contains(".chart-legend, .chart", ".default-color0.chart-bar");
+
+        assertThat(result.total()).isEqualTo(10);
+        assertThat(result.selectors().get(ThemeSplitter.CORE)).isEqualTo(5);
+        assertThat(result.selectors().get("chart")).isEqualTo(3);
+        assertThat(result.selectors().get("tab-pane")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should mark each run of rules with its source index")
+    void testOrderMarkers() {
+        var result = new ThemeSplitter().split(CSS);
+
+        assertThat(result).isNotNull();
+        assertThat(result.stylesheets().get(ThemeSplitter.CORE))
+            .startsWith(ThemeSplitter.ORDER_MARKER + "0*/\n.root")
+            .contains(ThemeSplitter.ORDER_MARKER + "5*/\n.tab-pane, .button")
+            .doesNotContain(ThemeSplitter.ORDER_MARKER + "1*/");
+        assertThat(result.stylesheets().get("tab-pane"))
+            .startsWith(ThemeSplitter.ORDER_MARKER + "2*/\n.tab-pane > .tab-header-area")
+            .contains(ThemeSplitter.ORDER_MARKER + "6*/\n.tab-pane:focused");
+        assertThat(result.stylesheets().get("chart"))
+            .startsWith(ThemeSplitter.ORDER_MARKER + "3*/\n.chart-legend, .chart")
+            .doesNotContain(ThemeSplitter.ORDER_MARKER + "4*/");
+    }
+
+    @Test
+    @DisplayName("should skip stylesheets without root rule")
+    void testNotTheme() {
+        assertThat(new ThemeSplitter().split(".chart { -fx-padding: 0; }")).isNull();
+    }
+
+    @Test
+    @DisplayName("should write modules to directory named after stylesheet")
+    void testSplitFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("my-theme.css");
+        Files.writeString(file, CSS);
+
+        new ThemeSplitter(List.of(ThemeModule.of("tab-pane", "tab-pane"))).split(file);
+
+        assertThat(dir.resolve("my-theme/core.css")).exists();
+        assertThat(dir.resolve("my-theme/tab-pane.css")).exists();
+        assertThat(dir.resolve("my-theme/chart.css")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("should only split base theme stylesheets")
+    void testSkipVariants(@TempDir Path dir) throws IOException {
+        for (String name : List.of("my-theme", "my-theme-flat", "my-theme-no-effects", "no-effects")) {
+            Files.writeString(dir.resolve(name + ".css"), CSS);
+        }
+
+        ThemeSplitter.main(new String[] {dir.toString()});
+
+        assertThat(dir.resolve("my-theme/core.css")).exists();
+        assertThat(dir.resolve("my-theme-flat")).doesNotExist();
+        assertThat(dir.resolve("my-theme-no-effects")).doesNotExist();
+        assertThat(dir.resolve("no-effects")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("module should own selectors that start with its style classes")
+    void testOwns() {
+        var module = ThemeModule.of("tab-pane", "tab-pane");
+
+        assertThat(module.owns(".tab-pane")).isTrue();
+        assertThat(module.owns(".tab-pane:focused > .tab")).isTrue();
+        assertThat(module.owns(".tab-pane-header")).isTrue();
+        assertThat(module.owns(".tab-panel")).isFalse();
+        assertThat(module.owns(".button .tab-pane")).isFalse();
+        assertThat(module.owns("TabPane")).isFalse();
+    }
+}
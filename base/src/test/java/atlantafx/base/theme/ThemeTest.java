@@ -25,4 +25,45 @@ class ThemeTest {
             Dracula.class
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFlat() {
+        Theme theme = Theme.flat(new NordDark());
+
+        assertThat(theme.getUserAgentStylesheet()).isEqualTo("/atlantafx/base/theme/nord-dark-flat.css");
+        assertThat(theme.getUserAgentStylesheetBSS()).isEqualTo("/atlantafx/base/theme/nord-dark-flat.bss");
+        assertThat(theme.isDarkMode()).isTrue();
+
+        Theme custom = Theme.flat(Theme.of("Custom", "custom.css", false));
+        assertThat(custom.getUserAgentStylesheet()).isEqualTo("custom-flat.css");
+        assertThat(custom.getUserAgentStylesheetBSS()).isNull();
+    }
+
+    @Test
+    void testNoEffects() {
+        Theme theme = Theme.noEffects(new PrimerLight());
+
+        assertThat(theme.getName()).isEqualTo("Primer Light (No Effects)");
+        assertThat(theme.getUserAgentStylesheet()).isEqualTo("/atlantafx/base/theme/primer-light-no-effects.css");
+        assertThat(theme.getUserAgentStylesheetBSS()).isEqualTo("/atlantafx/base/theme/primer-light-no-effects.bss");
+        assertThat(theme.isDarkMode()).isFalse();
+
+        assertThat(Theme.flat(theme).getUserAgentStylesheet())
+            .isEqualTo("/atlantafx/base/theme/primer-light-no-effects-flat.css");
+    }
+
+    @Test
+    void testWithPalette() {
+        Theme base = new PrimerDark();
+        Theme theme = Theme.withPalette(base, "Brand", "brand.css");
+
+        assertThat(base.getPaletteStylesheet()).isNull();
+        assertThat(theme.getName()).isEqualTo("Brand");
+        assertThat(theme.getUserAgentStylesheet()).isEqualTo(base.getUserAgentStylesheet());
+        assertThat(theme.getUserAgentStylesheetBSS()).isEqualTo(base.getUserAgentStylesheetBSS());
+        assertThat(theme.getPaletteStylesheet()).isEqualTo("brand.css");
+        assertThat(theme.isDarkMode()).isTrue();
+
+        assertThat(Theme.noEffects(theme).getPaletteStylesheet()).isEqualTo("brand.css");
+    }
+}
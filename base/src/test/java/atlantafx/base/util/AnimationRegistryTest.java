@@ -0,0 +1,118 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.util;
+
+import javafx.animation.Animation;
+import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith({JavaFXTest.class})
+public class AnimationRegistryTest {
+
+    static final Duration LONG = Duration.seconds(60);
+
+    @Test
+    public void testAnimationIsReused() {
+        var registry = new AnimationRegistry();
+        var node = new Rectangle(10, 10);
+        var created = new AtomicInteger();
+
+        var first = registry.play(node, "fadeOut", n -> {
+            created.incrementAndGet();
+            return Animations.fadeOut(n, LONG);
+        });
+        var second = registry.play(node, "fadeOut", n -> {
+            created.incrementAndGet();
+            return Animations.fadeOut(n, LONG);
+        });
+
+        assertThat(second).isSameAs(first);
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(second.getStatus()).isEqualTo(Animation.Status.RUNNING);
+        assertThat(registry.getActiveCount()).isEqualTo(1);
+
+        registry.cancelAll();
+    }
+
+    @Test
+    public void testConflictingAnimationIsCanceled() {
+        var registry = new AnimationRegistry();
+        var node = new Rectangle(10, 10);
+        node.setOpacity(0.8);
+
+        var flash = registry.play(node, "flash", Animations::flash);
+        var fadeOut = registry.play(node, "fadeOut", n -> Animations.fadeOut(n, LONG));
+        var shake = registry.play(node, "shakeX", Animations::shakeX);
+
+        assertThat(flash.getStatus()).isEqualTo(Animation.Status.STOPPED);
+        assertThat(registry.isActive(node, "flash")).isFalse();
+        assertThat(fadeOut.getStatus()).isEqualTo(Animation.Status.RUNNING);
+        assertThat(shake.getStatus()).isEqualTo(Animation.Status.RUNNING);
+        assertThat(registry.getActiveCount()).isEqualTo(2);
+
+        // different nodes don't conflict
+        registry.play(new Rectangle(10, 10), "fadeOut", n -> Animations.fadeOut(n, LONG));
+        assertThat(registry.getActiveCount()).isEqualTo(3);
+
+        registry.cancelAll();
+        assertThat(registry.getActiveCount()).isZero();
+    }
+
+    @Test
+    public void testStateIsRestoredOnCancel() {
+        var registry = new AnimationRegistry();
+        var node = new Rectangle(10, 10);
+        node.setOpacity(0.8);
+        node.setTranslateX(5);
+
+        registry.play(node, "fadeOut", n -> Animations.fadeOut(n, LONG));
+        registry.play(node, "shakeX", Animations::shakeX);
+        node.setOpacity(0.3);
+        node.setTranslateX(-10);
+
+        assertThat(registry.cancel(node, "fadeOut")).isTrue();
+        assertThat(registry.cancel(node, "fadeOut")).isFalse();
+        assertThat(node.getOpacity()).isEqualTo(0.8);
+
+        registry.cancelAll(node);
+        assertThat(node.getTranslateX()).isEqualTo(5);
+        assertThat(registry.getActiveCount()).isZero();
+    }
+
+    @Test
+    public void testRestartKeepsInitialState() {
+        var registry = new AnimationRegistry();
+        var node = new Rectangle(10, 10);
+        node.setOpacity(0.8);
+
+        registry.play(node, "fadeOut", n -> Animations.fadeOut(n, LONG));
+        node.setOpacity(0.5);
+        registry.play(node, "fadeOut", n -> Animations.fadeOut(n, LONG));
+        assertThat(registry.getActiveCount()).isEqualTo(1);
+
+        registry.cancel(node, "fadeOut");
+        assertThat(node.getOpacity()).isEqualTo(0.8);
+    }
+
+    @Test
+    public void testStoppedAnimationIsNotActive() {
+        var registry = new AnimationRegistry();
+        var node = new Rectangle(10, 10);
+
+        var animation = registry.play(node, "pulse", Animations::pulse);
+        assertThat(registry.activeCountProperty().get()).isEqualTo(1);
+
+        animation.stop();
+        assertThat(registry.isActive(node, "pulse")).isFalse();
+        assertThat(registry.getActiveCount()).isZero();
+
+        registry.release(node);
+        assertThat(node.getProperties()).doesNotContainKey(registry);
+    }
+}
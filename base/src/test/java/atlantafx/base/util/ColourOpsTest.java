@@ -0,0 +1,222 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColourOpsTest {
+
+    static final String[] COLORS = {
+        "#000000", "#ffffff", "#0969da", "#cf222e", "#1a7f37", "#9a6700", "#8250df", "#808080", "#0969da66"
+    };
+
+    @ParameterizedTest
+    @ValueSource(strings = {"#000000", "#ffffff", "#0969da", "#cf222e80", "#1a7f3700"})
+    @DisplayName("should read the same channels as Colour")
+    void testAccessors(String spec) {
+        var colour = Colour.of(spec);
+        long rgba = colour.getRGBA();
+
+        assertEquals(colour.getRed(), ColourOps.red(rgba));
+        assertEquals(colour.getGreen(), ColourOps.green(rgba));
+        assertEquals(colour.getBlue(), ColourOps.blue(rgba));
+        assertEquals(colour.getOpacity(), ColourOps.opacity(rgba));
+        assertEquals(rgba, ColourOps.pack(colour.getRed(), colour.getGreen(), colour.getBlue(), colour.getOpacity()));
+        assertEquals(Colour.of(spec, 0.5).getRGBA(), ColourOps.withOpacity(rgba, colour.getOpacity() * 0.5));
+    }
+
+    @Test
+    @DisplayName("should clamp out of range components instead of throwing")
+    void testPackClamps() {
+        assertEquals(Colour.of("#ff0000").getRGBA(), ColourOps.pack(2.0, -1.0, 0.0, 1.5));
+        assertEquals(0L, ColourOps.pack(Double.NaN, 0.0, 0.0, 0.0));
+    }
+
+    @Test
+    @DisplayName("should produce the same results as Colour object API")
+    void testSameAsObjectApi() {
+        for (String spec1 : COLORS) {
+            var c1 = Colour.of(spec1);
+            long p1 = c1.getRGBA();
+
+            assertEquals(c1.getLuminance(), ColourOps.luminance(p1));
+            assertEquals(c1.derive(30, 0.8, 1.2, 0.5).getRGBA(), ColourOps.derive(p1, 30, 0.8, 1.2, 0.5));
+            assertEquals(c1.brighter(0.7).getRGBA(), ColourOps.derive(p1, 0, 1.0, 1.0 / 0.7, 1.0));
+
+            for (String spec2 : COLORS) {
+                var c2 = Colour.of(spec2);
+                long p2 = c2.getRGBA();
+
+                assertEquals(c1.getContrastRatioTo(c2), ColourOps.contrastRatio(p1, p2));
+                assertEquals(c1.flatten(c2.flatten(Colour.of("#ffffff"))).getRGBA(),
+                    ColourOps.flatten(p1, ColourOps.flatten(p2, Colour.of("#ffffff").getRGBA())));
+                for (double t : new double[] {0.0, 0.25, 0.5, 0.75, 1.0}) {
+                    assertEquals(c1.interpolate(c2, t).getRGBA(), ColourOps.interpolate(p1, p2, t));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should convert to and from HSB and HSL into the provided array")
+    void testConversions() {
+        var out = new double[4];
+        for (String spec : COLORS) {
+            var colour = Colour.of(spec);
+            long rgba = colour.getRGBA();
+
+            var hsb = colour.toHSB();
+            assertSame(out, ColourOps.toHSB(rgba, out));
+            assertArrayEquals(new double[] {hsb.hue(), hsb.saturation(), hsb.brightness(), hsb.opacity()}, out);
+            assertEquals(Colour.hsb(hsb).getRGBA(), ColourOps.fromHSB(out[0], out[1], out[2], out[3]));
+
+            var hsl = colour.toHSL();
+            ColourOps.toHSL(rgba, out);
+            assertArrayEquals(new double[] {hsl.hue(), hsl.saturation(), hsl.lightness(), hsl.opacity()}, out);
+            assertEquals(Colour.hsl(hsl).getRGBA(), ColourOps.fromHSL(out[0], out[1], out[2], out[3]));
+        }
+    }
+
+    @Test
+    @DisplayName("should notify listeners when packed value changes")
+    void testSetRGBA() {
+        var colour = Colour.of("#0969da");
+        var counter = new AtomicInteger();
+        colour.addListener((obs, old, val) -> counter.incrementAndGet());
+
+        colour.setRGBA(colour.getRGBA());
+        assertEquals(0, counter.get());
+
+        colour.setRGBA(ColourOps.withOpacity(colour.getRGBA(), 0.5));
+        assertEquals(1, counter.get());
+        assertEquals(0.5, colour.getOpacity(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("bulk operations should produce the same results as scalar ones")
+    void testBulk() {
+        long[] colors = new long[COLORS.length];
+        for (int i = 0; i < COLORS.length; i++) {
+            colors[i] = ColourOps.parse(COLORS[i]);
+        }
+        long white = Colour.of("#ffffff").getRGBA();
+
+        double[] luminance = ColourOps.luminance(colors, new double[colors.length]);
+        long[] flat = ColourOps.flatten(colors, white, new long[colors.length]);
+        long[] half = ColourOps.interpolate(colors, flat, 0.5, new long[colors.length]);
+        for (int i = 0; i < colors.length; i++) {
+            assertEquals(ColourOps.luminance(colors[i]), luminance[i]);
+            assertEquals(ColourOps.flatten(colors[i], white), flat[i]);
+            assertEquals(ColourOps.interpolate(colors[i], flat[i], 0.5), half[i]);
+        }
+
+        double[] ratios = ColourOps.contrastMatrix(colors, flat, new double[colors.length * flat.length]);
+        for (int i = 0; i < colors.length; i++) {
+            for (int j = 0; j < flat.length; j++) {
+                assertEquals(ColourOps.contrastRatio(colors[i], flat[j]), ratios[i * flat.length + j]);
+            }
+        }
+
+        double[] steps = {0.0, 0.1, 0.5, 0.9, 1.0};
+        long[] ramp = ColourOps.interpolate(colors[2], colors[3], steps, new long[steps.length]);
+        for (int i = 0; i < steps.length; i++) {
+            assertEquals(ColourOps.interpolate(colors[2], colors[3], steps[i]), ramp[i]);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> ColourOps.luminance(colors, new double[1]));
+        assertThrows(IllegalArgumentException.class, () -> ColourOps.contrastMatrix(colors, flat, new double[1]));
+    }
+
+    @Test
+    @DisplayName("luminance lookup should be exact for 8-bit and other channel values")
+    void testLuminanceLookup() {
+        for (long value : new long[] {0, 257, 0x1234, 0x8080, 0x8081, 0xFFFE, 0xFFFF}) {
+            long rgba = (value << 48) | (value << 32) | (value << 16) | 0xFFFFL;
+            double linear = Colour.convertChannelToLinear(value / 65535.0);
+            assertEquals(0.2126 * linear + 0.7152 * linear + 0.0722 * linear, ColourOps.luminance(rgba));
+        }
+    }
+
+    @Test
+    @DisplayName("should convert to OKLab and OKLCH reference values")
+    void testOKLabReference() {
+        var out = new double[4];
+
+        ColourOps.toOKLab(ColourOps.parse("#ffffff"), out);
+        assertArrayEquals(new double[] {1.0, 0.0, 0.0, 1.0}, out, 0.0001);
+
+        ColourOps.toOKLab(ColourOps.parse("#000000"), out);
+        assertArrayEquals(new double[] {0.0, 0.0, 0.0, 1.0}, out, 0.0001);
+
+        ColourOps.toOKLab(ColourOps.parse("#ff000080"), out);
+        assertArrayEquals(new double[] {0.6280, 0.2249, 0.1258, 128 / 255.0}, out, 0.0001);
+
+        ColourOps.toOKLCH(ColourOps.parse("#ff0000"), out);
+        assertArrayEquals(new double[] {0.6280, 0.2577, 29.23, 1.0}, out, 0.01);
+
+        ColourOps.toOKLCH(ColourOps.parse("#808080"), out);
+        assertEquals(0.0, out[1], 0.0001);
+        assertEquals(0.0, out[2]);
+    }
+
+    @Test
+    @DisplayName("should convert to OKLab and OKLCH and back")
+    void testOKLabRoundTrip() {
+        var out = new double[4];
+        for (String spec : COLORS) {
+            var colour = Colour.of(spec);
+            long rgba = colour.getRGBA();
+
+            String hex = colour.toHex(true);
+
+            ColourOps.toOKLab(rgba, out);
+            assertEquals(hex, new Colour(ColourOps.fromOKLab(out[0], out[1], out[2], out[3])).toHex(true));
+            assertEquals(hex, colour.toOKLab().toColour().toHex(true));
+
+            ColourOps.toOKLCH(rgba, out);
+            assertEquals(hex, new Colour(ColourOps.fromOKLCH(out[0], out[1], out[2], out[3])).toHex(true));
+            assertEquals(hex, colour.toOKLCH().toColour().toHex(true));
+        }
+    }
+
+    @Test
+    @DisplayName("should interpolate colors in OKLab")
+    void testInterpolateOKLab() {
+        long black = ColourOps.parse("#000000");
+        long white = ColourOps.parse("#ffffff80");
+
+        assertEquals(black, ColourOps.interpolateOKLab(black, white, 0.0));
+        assertEquals(white, ColourOps.interpolateOKLab(black, white, 1.0));
+
+        // perceptual mid-gray is much lighter than the sRGB one
+        var out = ColourOps.toOKLab(ColourOps.interpolateOKLab(black, white, 0.5), new double[4]);
+        assertArrayEquals(new double[] {0.5, 0.0, 0.0, (1.0 + 128 / 255.0) / 2}, out, 0.0001);
+
+        var colour = Colour.of("#0969da");
+        var target = Colour.of("#cf222e");
+        assertSame(colour, colour.interpolateOKLab(target, 0.0));
+        assertSame(target, colour.interpolateOKLab(target, 1.0));
+        assertEquals(ColourOps.interpolateOKLab(colour.getRGBA(), target.getRGBA(), 0.3),
+            colour.interpolateOKLab(target, 0.3).getRGBA());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0x00000000, 0xFF000000, 0xFFFFFFFF, 0x800969DA, 0x40CF222E})
+    @DisplayName("should convert to and from ARGB colors")
+    void testARGB(int argb) {
+        var colour = new Colour((argb >>> 16) & 0xFF, (argb >>> 8) & 0xFF, argb & 0xFF, argb >>> 24);
+
+        assertEquals(colour.getRGBA(), ColourOps.fromARGB(argb));
+        assertEquals(argb, ColourOps.toARGB(ColourOps.fromARGB(argb)));
+
+        long[] packed = ColourOps.fromARGB(new int[] {argb}, new long[1]);
+        assertArrayEquals(new int[] {argb}, ColourOps.toARGB(packed, new int[1]));
+    }
+}
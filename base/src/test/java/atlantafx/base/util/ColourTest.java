@@ -2,6 +2,7 @@ package atlantafx.base.util;
 
 import javafx.beans.InvalidationListener;
 import javafx.beans.value.ChangeListener;
+import javafx.scene.paint.Color;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,6 +15,8 @@ import org.junit.jupiter.params.provider.ValueSource;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -135,6 +138,57 @@ class ColourTest {
             assertFalse(colour.isChangeListAllocated());
         }
 
+        @Test
+        @DisplayName("should keep single listener without arrays and compact back after removal")
+        void testListenerStorage() {
+            InvalidationListener first = _ -> { };
+            InvalidationListener second = _ -> { };
+            ChangeListener<Colour> third = (_, _, _) -> { };
+
+            colour.addListener(first);
+            var single = colour.getListeners();
+            assertNotNull(single);
+            assertEquals("SingleInvalidation", single.getClass().getSimpleName());
+
+            colour.addListener(second);
+            colour.addListener(third);
+            assertEquals(2, colour.getListeners().getInvalidationListenerCount());
+            assertEquals(1, colour.getListeners().getChangeListenerCount());
+
+            colour.removeListener(first);
+            colour.removeListener(second);
+            assertEquals("SingleChange", colour.getListeners().getClass().getSimpleName());
+
+            colour.removeListener(third);
+            assertNull(colour.getListeners());
+        }
+
+        @Test
+        @DisplayName("should notify listeners in order while they're added or removed during notification")
+        void testModifyListenersWhileFiring() {
+            var calls = new ArrayList<String>();
+            var listeners = new ArrayList<InvalidationListener>();
+            for (int i = 0; i < 10; i++) {
+                String name = String.valueOf(i);
+                listeners.add(_ -> {
+                    calls.add(name);
+                    if ("3".equals(name)) {
+                        colour.removeListener(listeners.get(4));
+                        colour.addListener(_ -> calls.add("new"));
+                    }
+                });
+            }
+            listeners.forEach(colour::addListener);
+
+            colour.setRed(0.1);
+            assertEquals(List.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"), calls);
+
+            calls.clear();
+            colour.setRed(0.2);
+            assertEquals(List.of("0", "1", "2", "3", "5", "6", "7", "8", "9", "new"), calls);
+            assertEquals(11, colour.getListeners().getInvalidationListenerCount());
+        }
+
         @MethodSource("provideSetters")
         @ParameterizedTest(name = "setter #{index} should trigger notification")
         @DisplayName("should notify listener")
@@ -1382,4 +1436,91 @@ class ColourTest {
         }
     }
     //endregion
+
+    //region PARSER
+    @Nested
+    class ParserTest {
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+            "#0969da", "#0969DA80", "#abc", "#abc9", "0x0969da", "rgb(9, 105, 218)", "rgba(9, 105, 218, 0.5)",
+            "rgb(60%, 40.0%, 192)", "hsl(180, 50%, 100%)", "hsla(180.5, 50.5%, 100%, 0.6)"
+        })
+        @DisplayName("should parse the same value regardless of case and surrounding whitespace")
+        void testCaseAndWhitespace(String spec) {
+            Colour expected = of(spec);
+            assertEquals(expected, of(spec.toUpperCase(Locale.ROOT)));
+            assertEquals(expected, of("  " + spec + "\t"));
+            assertEquals(expected.getRGBA(), ColourOps.parse(spec));
+        }
+
+        @Test
+        @DisplayName("should parse all CSS named colors as JavaFX does")
+        void testNamedColors() {
+            var names = ColourNames.names();
+            assertEquals(149, names.size());
+
+            for (String name : names) {
+                if ("rebeccapurple".equals(name)) {
+                    continue;
+                }
+                var fx = Color.web(name);
+                assertEquals(Colour.color(fx), of(name), name);
+            }
+
+            assertEquals(of("#663399"), of("RebeccaPurple"));
+            assertEquals(of("#ff000080"), of("red", 128.0 / 255));
+            assertTrue(of("transparent").isTransparent());
+            assertThrows(IllegalArgumentException.class, () -> of("reds"));
+            assertThrows(IllegalArgumentException.class, () -> of("re"));
+        }
+
+        @ParameterizedTest
+        @CsvSource(delimiter = ';', value = {
+            "rgba(0, 0, 0, 1e-1); 0.1",
+            "rgba(0, 0, 0, .25); 0.25",
+            "rgba(0, 0, 0, +0.5); 0.5",
+            "rgba(0, 0, 0, 5E-1); 0.5",
+            "rgba(0, 0, 0, 0.00000000000000000000123); 0.0"
+        })
+        @DisplayName("should parse decimal numbers")
+        void testNumbers(String spec, double opacity) {
+            assertEquals(opacity, of(spec).getOpacity(), 0.0001);
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+            "  ", "#12345", "#ggg", "#+1+1+1", "rgb(1.5, 0, 0)", "rgb(1e2, 0, 0)", "rgb(, 0, 0)",
+            "rgba(0, 0, 0, 1e)", "rgba(0, 0, 0, -)", "rgba(0, 0, 0, .)", "rgba(0, 0, 0, 0.5x)", "hsl(0, 50, 50%)"
+        })
+        @DisplayName("should reject invalid specifications")
+        void testInvalid(String spec) {
+            assertThrows(IllegalArgumentException.class, () -> of(spec));
+        }
+
+        @Test
+        @DisplayName("should cache parsed values and evict least recently used ones")
+        void testCache() {
+            var cache = new ColourCache(2);
+
+            Colour first = cache.get("#0969da");
+            Colour second = cache.get("#0969da");
+            assertEquals(of("#0969da"), first);
+            assertEquals(first, second);
+            assertNotSame(first, second);
+            assertEquals(1, cache.size());
+
+            cache.parse("red");
+            cache.parse("#0969da");
+            cache.parse("blue");
+            assertEquals(2, cache.size());
+
+            assertThrows(IllegalArgumentException.class, () -> cache.parse("foobar"));
+            assertEquals(2, cache.size());
+
+            cache.clear();
+            assertEquals(0, cache.size());
+        }
+    }
+    //endregion
 }
@@ -0,0 +1,144 @@
+/* SPDX-License-Identifier: MIT */
+
+package atlantafx.base.util;
+
+import javafx.animation.Interpolator;
+import javafx.scene.Node;
+import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith({JavaFXTest.class})
+public class StaggerTransitionTest {
+
+    @Test
+    public void testCycleDuration() {
+        var t = Animations.staggerFadeIn(createNodes(5), Duration.millis(100), Duration.millis(10));
+        assertThat(t.getCycleDuration()).isEqualTo(Duration.millis(140));
+        assertThat(t.getInterpolator()).isEqualTo(Interpolator.LINEAR);
+
+        var empty = Animations.staggerFadeIn(List.of(), Duration.millis(100), Duration.millis(10));
+        assertThat(empty.getCycleDuration()).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    public void testZeroDuration() {
+        var nodes = createNodes(5);
+        var t = new StaggerTransition(nodes, Duration.ZERO, Duration.millis(10),
+            Node::setOpacity, Interpolator.LINEAR);
+        assertThat(t.getCycleDuration()).isEqualTo(Duration.millis(40));
+
+        // 20ms of 40ms total, every started node is in the final state
+        t.interpolate(0.5);
+        assertThat(nodes).extracting(Node::getOpacity).containsExactly(1.0, 1.0, 1.0, 0.0, 0.0);
+
+        t.interpolate(1.0);
+        assertThat(nodes).extracting(Node::getOpacity).containsOnly(1.0);
+    }
+
+    @Test
+    public void testNodeProgress() {
+        var nodes = createNodes(5);
+        var t = new StaggerTransition(nodes, Duration.millis(100), Duration.millis(50),
+            Node::setOpacity, Interpolator.LINEAR);
+
+        // 150ms of 300ms total, the last node hasn't started yet
+        t.interpolate(0.5);
+        assertThat(nodes).extracting(Node::getOpacity).containsExactly(1.0, 1.0, 0.5, 0.0, 0.0);
+
+        t.interpolate(1.0);
+        assertThat(nodes).extracting(Node::getOpacity).containsOnly(1.0);
+
+        // played backwards
+        t.interpolate(0.25);
+        assertThat(nodes).extracting(Node::getOpacity).containsExactly(0.75, 0.25, 0.0, 0.0, 0.0);
+    }
+
+    @Test
+    public void testOnlyActiveNodesAreUpdated() {
+        var nodes = createNodes(100);
+        var updates = new AtomicInteger();
+        var t = new StaggerTransition(nodes, Duration.millis(100), Duration.millis(10),
+            (node, progress) -> updates.incrementAndGet());
+
+        // the first frame moves all nodes to the initial state
+        t.interpolate(0.0);
+        assertThat(updates.get()).isEqualTo(101);
+
+        updates.set(0);
+        t.interpolate(0.1);
+        assertThat(updates.get()).isLessThanOrEqualTo(11);
+
+        // every finished node is updated once more
+        updates.set(0);
+        t.interpolate(0.2);
+        assertThat(updates.get()).isLessThanOrEqualTo(21);
+    }
+
+    @Test
+    public void testStopMovesNodesToFinalState() {
+        var nodes = createNodes(3);
+        var t = Animations.staggerFadeInUp(nodes, Duration.seconds(60), Duration.seconds(1));
+
+        // the last node starts in two seconds
+        t.playFromStart();
+        assertThat(nodes.get(2).getOpacity()).isEqualTo(0.0);
+        assertThat(nodes.get(2).getTranslateY()).isEqualTo(10.0);
+
+        t.stop();
+        assertThat(nodes).extracting(Node::getOpacity).containsOnly(1.0);
+        assertThat(nodes).extracting(Node::getTranslateY).containsOnly(0.0);
+    }
+
+    @Test
+    public void testStopAfterReversePlayback() {
+        var nodes = createNodes(3);
+        var t = Animations.staggerFadeInUp(nodes, Duration.seconds(60), Duration.seconds(1));
+
+        t.setRate(-1);
+        t.playFrom(t.getCycleDuration());
+
+        // the initial state is the end state when played backwards
+        t.stop();
+        assertThat(nodes).extracting(Node::getOpacity).containsOnly(0.0);
+        assertThat(nodes).extracting(Node::getTranslateY).containsOnly(10.0);
+    }
+
+    @Test
+    public void testFadeInUpMeasuresNodesOnce() {
+        var nodes = createNodes(3);
+        var t = Animations.staggerFadeInUp(nodes, Duration.millis(100), Duration.millis(10));
+
+        // the offset doesn't follow the node size changes during the animation
+        ((Rectangle) nodes.get(0)).setHeight(50);
+        t.interpolate(0.0);
+        assertThat(nodes).extracting(Node::getTranslateY).containsOnly(10.0);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        var nodes = new ArrayList<Node>();
+        nodes.add(null);
+
+        assertThatThrownBy(() -> Animations.staggerFadeIn(nodes, Duration.ONE, Duration.ONE))
+            .isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> Animations.staggerFadeIn(List.of(), Duration.ONE, Duration.millis(-1)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Node> createNodes(int count) {
+        var nodes = new ArrayList<Node>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(new Rectangle(10, 10));
+        }
+        return nodes;
+    }
+}
@@ -2,17 +2,29 @@
 
 package atlantafx.base.util;
 
+import javafx.application.Platform;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Stop;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+@ExtendWith({JavaFXTest.class})
 class StyleMapTest {
 
     Pane node;
@@ -109,6 +121,55 @@ class StyleMapTest {
         assertThat(styleMap.get("-fx-border-width")).isEqualTo("5px");
     }
 
+    @Test
+    @DisplayName("protected attributes field is a live read-only view")
+    void testAttributesView() {
+        Map<String, String> view = styleMap.attributes;
+        assertThat(view).isEmpty();
+
+        styleMap.set("-fx-padding", "1px").set("-fx-border-width", "2px");
+        assertThat(view).containsExactly(
+            Map.entry("-fx-border-width", "2px"),
+            Map.entry("-fx-padding", "1px")
+        );
+        assertThat(view.get("-fx-padding")).isEqualTo("1px");
+        assertThat(view.containsKey("-fx-opacity")).isFalse();
+
+        assertThatThrownBy(() -> view.put("-fx-opacity", "0.5"))
+            .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> view.entrySet().iterator().next().setValue("3px"))
+            .isInstanceOf(UnsupportedOperationException.class);
+
+        styleMap.remove("-fx-padding");
+        assertThat(view).containsOnlyKeys("-fx-border-width");
+    }
+
+    @Test
+    @DisplayName("subclasses should modify attributes without firing changes")
+    void testSubclassAttributes() {
+        var changes = new int[1];
+        var map = new StyleMap(node) {
+            void update() {
+                boolean modified = setAttribute("-fx-padding", "1px");
+                modified |= setAttribute("-fx-padding", "1px");
+                modified |= removeAttribute("-fx-opacity");
+                if (modified) {
+                    fireChanged();
+                }
+            }
+        };
+        map.invalidationProperty.addListener((obs, old, val) -> changes[0]++);
+
+        map.update();
+        assertThat(changes[0]).isEqualTo(1);
+        assertThat(map.attributes).containsOnlyKeys("-fx-padding");
+        assertThat(map.toString()).isEqualTo("-fx-padding:1px;");
+
+        assertThat(map.removeAttribute("-fx-padding")).isTrue();
+        assertThat(map.toString()).isEmpty();
+        assertThat(changes[0]).isEqualTo(1);
+    }
+
     @Test
     @DisplayName("toString() should return correct CSS")
     void testToString() {
@@ -232,4 +293,152 @@ class StyleMapTest {
         assertThat(styleMap.attributes()).isEmpty();
         assertThat(node.getStyle()).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("attributes should be kept sorted by key")
+    void testSortedAttributes() {
+        styleMap
+            .set("-fx-padding", "1")
+            .set("-fx-background-color", "red")
+            .set("-fx-text-fill", "blue")
+            .set("-fx-border-color", "green")
+            .set("-fx-opacity", "0.5")
+            .remove("-fx-text-fill");
+
+        assertThat(styleMap.attributes().keySet())
+            .containsExactly("-fx-background-color", "-fx-border-color", "-fx-opacity", "-fx-padding");
+        assertThat(styleMap.toString())
+            .isEqualTo("-fx-background-color:red;-fx-border-color:green;-fx-opacity:0.5;-fx-padding:1;");
+    }
+
+    @Test
+    @DisplayName("style string and attributes should be cached until modification")
+    void testCachedSerialization() {
+        styleMap.set("-fx-rotate", "45");
+
+        String style = styleMap.toString();
+        var attributes = styleMap.attributes();
+        assertThat(styleMap.toString()).isSameAs(style);
+        assertThat(styleMap.attributes()).isSameAs(attributes);
+
+        // same value doesn't modify the map
+        styleMap.set("-fx-rotate", "45");
+        assertThat(styleMap.toString()).isSameAs(style);
+
+        styleMap.set("-fx-rotate", "90");
+        assertThat(styleMap.toString()).isNotSameAs(style).isEqualTo("-fx-rotate:90;");
+        assertThat(styleMap.attributes()).isNotSameAs(attributes);
+    }
+
+    @Test
+    @DisplayName("apply() should not set node style if it hasn't changed")
+    void testApplySkipsUnchangedStyle() {
+        var changes = new int[1];
+        node.styleProperty().addListener((obs, old, val) -> changes[0]++);
+
+        styleMap.set("-fx-rotate", "45").apply();
+        styleMap.apply();
+        styleMap.set("-fx-rotate", "45").apply();
+        assertThat(changes[0]).isEqualTo(1);
+
+        styleMap.set("-fx-rotate", "90").apply();
+        assertThat(changes[0]).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("typed setters should format values")
+    void testTypedSetters() {
+        styleMap
+            .setColor("-fx-text-fill", Colour.of("#FF000080"))
+            .setSize("-fx-border-width", 2, "px")
+            .setSize("-fx-opacity", 0.00005, "")
+            .setPaint("-fx-background-color", Color.web("#0969da"))
+            .setPaint("-fx-border-color", new LinearGradient(0, 0, 1, 0, true, CycleMethod.NO_CYCLE,
+                new Stop(0, Color.RED), new Stop(1, Color.BLUE)));
+
+        assertThat(styleMap.get("-fx-text-fill")).isEqualTo("#FF000080");
+        assertThat(styleMap.get("-fx-border-width")).isEqualTo("2px");
+        assertThat(styleMap.get("-fx-opacity")).isEqualTo("0.00005");
+        assertThat(styleMap.get("-fx-background-color")).isEqualTo("#0969DA");
+        assertThat(styleMap.get("-fx-border-color")).startsWith("linear-gradient(");
+
+        styleMap.setColor("-fx-text-fill", null);
+        assertThat(styleMap.get("-fx-text-fill")).isNull();
+
+        assertThatThrownBy(() -> styleMap.setSize("-fx-padding", Double.NaN, "px"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> styleMap.setPaint("-fx-fill", new ImagePattern(new WritableImage(1, 1))))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("typed setters should not format or fire unchanged values")
+    void testTypedSettersSkipUnchanged() {
+        var changes = new int[1];
+        styleMap.invalidationProperty.addListener((obs, old, val) -> changes[0]++);
+
+        var color = Colour.of("#0969da");
+        styleMap.setColor("-fx-fill", color).setSize("-fx-translate-x", 10, "px");
+        String value = styleMap.get("-fx-fill");
+        assertThat(changes[0]).isEqualTo(2);
+
+        styleMap.setColor("-fx-fill", color.copy()).setSize("-fx-translate-x", 10, "px");
+        assertThat(styleMap.get("-fx-fill")).isSameAs(value);
+        assertThat(changes[0]).isEqualTo(2);
+
+        // a plain string setter discards the typed value
+        styleMap.set("-fx-translate-x", "5px").setSize("-fx-translate-x", 10, "px");
+        assertThat(styleMap.get("-fx-translate-x")).isEqualTo("10px");
+        assertThat(changes[0]).isEqualTo(4);
+
+        styleMap.setSize("-fx-translate-x", 10, "em");
+        assertThat(styleMap.get("-fx-translate-x")).isEqualTo("10em");
+    }
+
+    @Test
+    @DisplayName("edit() should trigger fireChanged once for all modifications")
+    void testEdit() {
+        var changes = new int[1];
+        styleMap.bind();
+        styleMap.invalidationProperty.addListener((obs, old, val) -> changes[0]++);
+
+        styleMap.edit(map -> map
+            .set("-fx-translate-x", "10")
+            .set("-fx-translate-y", "20")
+            .edit(nested -> nested.remove("-fx-translate-x"))
+        );
+
+        assertThat(changes[0]).isEqualTo(1);
+        assertThat(node.getStyle()).isEqualTo("-fx-translate-y:20;");
+
+        // no modifications, no changes
+        styleMap.edit(map -> map.get("-fx-translate-y"));
+        assertThat(changes[0]).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deferred apply() should set node style once on the next pulse")
+    void testDeferredApply() throws Exception {
+        var styles = new ArrayList<String>();
+
+        runFx(() -> {
+            styleMap.setDeferred(true);
+            node.styleProperty().addListener((obs, old, val) -> styles.add(val));
+
+            styleMap.set("-fx-opacity", "0.1").apply();
+            styleMap.set("-fx-opacity", "0.2").apply();
+            styleMap.set("-fx-opacity", "0.3").apply();
+
+            assertThat(node.getStyle()).isEmpty();
+        });
+        runFx(() -> { });
+
+        assertThat(styles).containsExactly("-fx-opacity:0.3;");
+    }
+
+    private static void runFx(Runnable action) throws Exception {
+        var future = new FutureTask<Void>(action, null);
+        Platform.runLater(future);
+        future.get(5, TimeUnit.SECONDS);
+    }
+}